@@ -0,0 +1,109 @@
+package com.incidents.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.incidents.model.Comment;
+import com.incidents.model.Incident;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Massa de dados e objetos compartilhados pelos benchmarks (mesmos valores do application.yml)
+ */
+final class BenchmarkFixtures {
+    
+    static final String JWT_SECRET = "aW5jaWRlbnRzX2p3dF9zZWNyZXRfa2V5XzIwMjRfdmVyeV9sb25nX2FuZF9zZWN1cmVfYmFzZTY0";
+    static final long JWT_EXPIRATION = 86400000L;
+    static final long STREAM_TOKEN_EXPIRATION = 60000L;
+    
+    private static final String[] TAGS = {"database", "network", "api", "frontend", "auth", "cache", "infra", "deploy"};
+    
+    private BenchmarkFixtures() {
+    }
+    
+    static JwtService jwtService() {
+        return jwtService(10_000);
+    }
+    
+    static JwtService jwtService(long cacheMaximumSize) {
+        return new JwtService(JWT_SECRET, JWT_EXPIRATION, STREAM_TOKEN_EXPIRATION, cacheMaximumSize, new SimpleMeterRegistry());
+    }
+    
+    /**
+     * ObjectMapper equivalente ao configurado pelo Spring Boot para os controllers
+     */
+    static ObjectMapper objectMapper() {
+        return objectMapper(new JsonFactory(), true);
+    }
+    
+    /**
+     * ObjectMapper do formato informado (JsonFactory, CBORFactory ou SmileFactory), com ou sem o Blackbird
+     */
+    static ObjectMapper objectMapper(JsonFactory factory, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+    
+    static List<Incident> incidents(int count) {
+        Random random = new Random(42);
+        List<Incident> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Incident incident = new Incident();
+            incident.setId(new UUID(random.nextLong(), random.nextLong()));
+            incident.setTitulo("Falha intermitente no serviço " + i);
+            incident.setDescricao(text(random, 200 + random.nextInt(1800)));
+            incident.setPrioridade(Prioridade.values()[random.nextInt(Prioridade.values().length)]);
+            incident.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+            incident.setResponsavelEmail("responsavel" + (i % 25) + "@incidents.com");
+            incident.setTags(List.of(TAGS[i % TAGS.length], TAGS[(i + 3) % TAGS.length], TAGS[(i + 5) % TAGS.length]));
+            incident.setDataAbertura(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i * 37L));
+            incident.setDataAtualizacao(incident.getDataAbertura().plusHours(2));
+            incidents.add(incident);
+        }
+        return incidents;
+    }
+    
+    static List<Comment> comments(UUID incidentId, int count) {
+        Random random = new Random(7);
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Comment comment = new Comment();
+            comment.setId(new UUID(random.nextLong(), random.nextLong()));
+            comment.setIncidentId(incidentId);
+            comment.setAutor("operador" + (i % 40) + "@incidents.com");
+            comment.setMensagem(text(random, 40 + random.nextInt(400)));
+            comment.setDataCriacao(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i * 90L));
+            comments.add(comment);
+        }
+        return comments;
+    }
+    
+    static List<String> rawTags() {
+        return List.of(" Database", "network ", "API", "", "database", "  ", "Cache", "infra", "NETWORK", "deploy");
+    }
+    
+    private static String text(Random random, int length) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyz ";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
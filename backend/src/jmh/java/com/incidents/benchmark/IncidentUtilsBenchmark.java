@@ -0,0 +1,38 @@
+package com.incidents.benchmark;
+
+import com.incidents.util.IncidentUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utilitários executados na escrita (tags) e na listagem (termo de busca) de incidentes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncidentUtilsBenchmark {
+    
+    private List<String> tags;
+    private String termo;
+    
+    @Setup
+    public void setup() {
+        tags = BenchmarkFixtures.rawTags();
+        termo = "  Falha no Banco de Dados  ";
+    }
+    
+    @Benchmark
+    public List<String> normalizeTags() {
+        return IncidentUtils.normalizeTags(tags);
+    }
+    
+    @Benchmark
+    public String buildSearchFilter() {
+        return IncidentUtils.buildSearchFilter(termo);
+    }
+}
@@ -0,0 +1,53 @@
+package com.incidents.benchmark;
+
+import com.incidents.security.CustomUserDetailsService;
+import com.incidents.security.JwtAuthenticationFilter;
+import com.incidents.security.JwtService;
+import com.incidents.security.UserVersionService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do filtro JWT completo (cabeçalho, verificação do token e montagem do Authentication)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    
+    @Setup
+    public void setup() {
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        UserVersionService userVersionService = new UserVersionService(userDetailsService, Duration.ofSeconds(30), 10_000);
+        filter = new JwtAuthenticationFilter(jwtService, userVersionService);
+        
+        String token = jwtService.generateToken(userDetailsService.loadUserByUsername("admin@incidents.com"),
+                userVersionService.currentVersion("admin@incidents.com").orElseThrow());
+        request = new MockHttpServletRequest("GET", "/incidents");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+    
+    @Benchmark
+    public Object doFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
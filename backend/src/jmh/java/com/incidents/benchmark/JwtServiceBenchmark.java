@@ -0,0 +1,64 @@
+package com.incidents.benchmark;
+
+import com.incidents.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da verificação do token JWT feita a cada requisição autenticada
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+    
+    // 0 desativa o cache de claims verificados (mede o parse + HMAC de cada chamada)
+    @Param({"0", "10000"})
+    public long cacheMaximumSize;
+    
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        jwtService = BenchmarkFixtures.jwtService(cacheMaximumSize);
+        userDetails = new User("admin@incidents.com", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = jwtService.generateToken(userDetails, 1L);
+    }
+    
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+    
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+    
+    @Benchmark
+    public Optional<Claims> verifyToken() {
+        return jwtService.verifyToken(token);
+    }
+    
+    /**
+     * Sequência executada pelo JwtAuthenticationFilter em cada requisição
+     */
+    @Benchmark
+    public void requestPath(Blackhole blackhole) {
+        Optional<Claims> claims = jwtService.verifyToken(token);
+        blackhole.consume(claims.isPresent() && jwtService.isTokenValid(claims.get(), userDetails));
+    }
+}
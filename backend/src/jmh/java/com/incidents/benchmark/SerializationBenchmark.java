@@ -0,0 +1,130 @@
+package com.incidents.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.incidents.model.Comment;
+import com.incidents.model.Incident;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização das respostas de listagem de incidentes e de comentários em cada formato
+ * negociável (JSON, Smile, CBOR), com e sem o Blackbird, e o custo do gzip aplicado pelo
+ * Tomcat. Os bytes trafegados de cada variante saem como métrica secundária {@code bytes}
+ * no resultado (inclusive no JSON com -rf json).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class IncidentPageState {
+        
+        @Param({"20", "100"})
+        public int pageSize;
+        
+        @Param({"json", "smile", "cbor"})
+        public String format;
+        
+        @Param({"true", "false"})
+        public boolean blackbird;
+        
+        ObjectMapper objectMapper;
+        Page<Incident> page;
+        
+        @Setup
+        public void setup() throws IOException {
+            objectMapper = objectMapper(format, blackbird);
+            page = new PageImpl<>(BenchmarkFixtures.incidents(pageSize), PageRequest.of(3, pageSize), 10_000);
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class CommentListState {
+        
+        @Param({"50", "1000"})
+        public int commentCount;
+        
+        @Param({"json", "smile", "cbor"})
+        public String format;
+        
+        @Param({"true", "false"})
+        public boolean blackbird;
+        
+        ObjectMapper objectMapper;
+        List<Comment> comments;
+        
+        @Setup
+        public void setup() throws IOException {
+            objectMapper = objectMapper(format, blackbird);
+            comments = BenchmarkFixtures.comments(UUID.randomUUID(), commentCount);
+        }
+    }
+    
+    /**
+     * Tamanho da última resposta gerada; como contador do tipo EVENTS, o JMH o reporta sem
+     * dividir pelo tempo, ou seja, em bytes por resposta
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        
+        public long bytes;
+        
+        byte[] record(byte[] body) {
+            bytes = body.length;
+            return body;
+        }
+    }
+    
+    @Benchmark
+    public byte[] incidentPage(IncidentPageState state, WireSize wire) throws Exception {
+        return wire.record(state.objectMapper.writeValueAsBytes(state.page));
+    }
+    
+    @Benchmark
+    public byte[] commentList(CommentListState state, WireSize wire) throws Exception {
+        return wire.record(state.objectMapper.writeValueAsBytes(state.comments));
+    }
+    
+    @Benchmark
+    public byte[] incidentPageGzip(IncidentPageState state, WireSize wire) throws Exception {
+        return wire.record(gzip(state.objectMapper.writeValueAsBytes(state.page)));
+    }
+    
+    @Benchmark
+    public byte[] commentListGzip(CommentListState state, WireSize wire) throws Exception {
+        return wire.record(gzip(state.objectMapper.writeValueAsBytes(state.comments)));
+    }
+    
+    private static ObjectMapper objectMapper(String format, boolean blackbird) {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        return BenchmarkFixtures.objectMapper(factory, blackbird);
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
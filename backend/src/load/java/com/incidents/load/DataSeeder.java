@@ -0,0 +1,273 @@
+package com.incidents.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Popula as tabelas incident, incident_tags e comment com dados sintéticos via COPY, em
+ * transações de {@code batch} incidentes. Distribuições:
+ * <ul>
+ *   <li>abertura uniforme nos últimos {@code days} dias antes de {@code until}</li>
+ *   <li>status conforme a idade: na última semana a maioria aberta ou em andamento, antes disso resolvida ou cancelada</li>
+ *   <li>prioridade 50% BAIXA, 35% MEDIA, 15% ALTA; tags e responsáveis com distribuição Zipf</li>
+ *   <li>comentários em número exponencial de média {@code comments}, mais frequentes nos encerrados,
+ *       e 1% dos incidentes com discussões 20 vezes maiores (paginação de comentários)</li>
+ * </ul>
+ * A mesma semente e o mesmo {@code until} geram exatamente a mesma massa. Com
+ * {@code rebuild-indexes} (padrão) os índices secundários, inclusive o GIN da busca textual,
+ * são removidos antes da carga e recriados ao final, bem mais rápido que mantê-los linha a linha.
+ */
+final class DataSeeder {
+    
+    private static final String COPY_INCIDENT = "COPY incident (id, titulo, descricao, prioridade, status, "
+            + "responsavel_email, data_abertura, data_atualizacao) FROM STDIN";
+    private static final String COPY_TAGS = "COPY incident_tags (incident_id, tag) FROM STDIN";
+    private static final String COPY_COMMENT = "COPY comment (id, incident_id, autor, mensagem, data_criacao) FROM STDIN";
+    
+    private static final String SECONDARY_INDEXES = "SELECT indexname, indexdef FROM pg_indexes i "
+            + "WHERE schemaname = current_schema() AND tablename IN ('incident', 'incident_tags', 'comment') "
+            + "AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname) ORDER BY indexname";
+    
+    private static final int RECENT_DAYS = 7;
+    private static final int MAX_COMMENTS = 500;
+    
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final long incidents;
+    private final double commentsMean;
+    private final int batchSize;
+    private final int days;
+    private final LocalDateTime until;
+    private final boolean truncate;
+    private final boolean rebuildIndexes;
+    private final long seed;
+    private final Random random;
+    
+    DataSeeder(LoadOptions options) {
+        this.jdbcUrl = options.getString("jdbc-url", "jdbc:postgresql://localhost:5432/incidents_db");
+        this.user = options.getString("jdbc-user", env("POSTGRES_USER", "incidents_user"));
+        this.password = options.getString("jdbc-password", env("POSTGRES_PASSWORD", "incidents_pass"));
+        this.incidents = options.getLong("incidents", 1_000_000);
+        this.commentsMean = options.getDouble("comments", 3);
+        this.batchSize = options.getInt("batch", 10_000);
+        this.days = options.getInt("days", 730);
+        this.until = LocalDate.parse(options.getString("until", LocalDate.now().toString())).atStartOfDay();
+        this.truncate = options.getBoolean("truncate", false);
+        this.rebuildIndexes = options.getBoolean("rebuild-indexes", true);
+        this.seed = options.getLong("seed", 42);
+        this.random = new Random(seed);
+        options.requireAllUsed();
+    }
+    
+    void seed() throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                // Commits sem esperar o fsync: uma queda do banco perde só os últimos lotes
+                statement.execute("SET synchronous_commit = off");
+                if (truncate) {
+                    statement.execute("TRUNCATE incident, incident_tags, comment");
+                    System.out.println("Tabelas incident, incident_tags e comment esvaziadas");
+                }
+            }
+            connection.commit();
+            requireNotSeeded(connection);
+            
+            Map<String, String> indexes = rebuildIndexes ? dropSecondaryIndexes(connection) : Map.of();
+            long start = System.nanoTime();
+            try {
+                load(connection);
+            } finally {
+                recreateIndexes(connection, indexes);
+            }
+            
+            // Estatísticas do planejador atualizadas antes da carga
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE incident, incident_tags, comment");
+            }
+            System.out.printf("Concluído em %.1fs. Reinicie a aplicação (ou aguarde a reconciliação dos contadores) "
+                    + "antes de medir.%n", (System.nanoTime() - start) / 1e9);
+        }
+    }
+    
+    private void load(Connection connection) throws SQLException, IOException {
+        CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+        long start = System.nanoTime();
+        long tagRows = 0;
+        long commentRows = 0;
+        for (long done = 0; done < incidents; ) {
+            int count = (int) Math.min(batchSize, incidents - done);
+            Batch batch = generate(count);
+            copy.copyIn(COPY_INCIDENT, new StringReader(batch.incidents.toString()));
+            copy.copyIn(COPY_TAGS, new StringReader(batch.tags.toString()));
+            copy.copyIn(COPY_COMMENT, new StringReader(batch.comments.toString()));
+            connection.commit();
+            
+            done += count;
+            tagRows += batch.tagRows;
+            commentRows += batch.commentRows;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%,d/%,d incidentes (%,d tags, %,d comentários) em %.1fs, %,.0f incidentes/s%n",
+                    done, incidents, tagRows, commentRows, seconds, done / seconds);
+        }
+    }
+    
+    /**
+     * A mesma semente gera os mesmos ids: repetir o seed sem truncate falharia na PK no primeiro lote
+     */
+    private void requireNotSeeded(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM incident WHERE id = ?")) {
+            statement.setObject(1, SyntheticData.uuid(new Random(seed)));
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    throw new IllegalStateException("Massa da semente " + seed
+                            + " já carregada; use --truncate para recriá-la ou outra --seed para acrescentar dados");
+                }
+            }
+        }
+        connection.rollback();
+    }
+    
+    /**
+     * Remove os índices que não sustentam constraints (PK e FK continuam valendo durante a carga)
+     * e devolve as definições para recriação
+     */
+    private static Map<String, String> dropSecondaryIndexes(Connection connection) throws SQLException {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(SECONDARY_INDEXES)) {
+                while (rs.next()) {
+                    indexes.put(rs.getString(1), rs.getString(2));
+                }
+            }
+            for (Map.Entry<String, String> index : indexes.entrySet()) {
+                System.out.println("Removendo " + index.getValue());
+                statement.execute("DROP INDEX " + index.getKey());
+            }
+        }
+        connection.commit();
+        return indexes;
+    }
+    
+    private static void recreateIndexes(Connection connection, Map<String, String> indexes) throws SQLException {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        connection.rollback();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET maintenance_work_mem = '512MB'");
+            for (String definition : indexes.values()) {
+                long start = System.nanoTime();
+                statement.execute(definition);
+                connection.commit();
+                System.out.printf("Recriado em %.1fs: %s%n", (System.nanoTime() - start) / 1e9, definition);
+            }
+        }
+    }
+    
+    private Batch generate(int count) {
+        Batch batch = new Batch(count);
+        long spanSeconds = days * 86_400L;
+        for (int i = 0; i < count; i++) {
+            UUID id = SyntheticData.uuid(random);
+            LocalDateTime abertura = until.minusSeconds((long) (random.nextDouble() * spanSeconds));
+            boolean recent = abertura.isAfter(until.minusDays(RECENT_DAYS));
+            String status = (recent ? SyntheticData.STATUS_RECENT : SyntheticData.STATUS_OLD).next(random);
+            boolean closed = status.equals("RESOLVIDA") || status.equals("CANCELADA");
+            // Encerrados foram alterados até o encerramento; abertos, pouco depois da abertura
+            long updateSeconds = (long) SyntheticData.exponential(random, closed ? 2 * 86_400 : 6 * 3_600);
+            LocalDateTime atualizacao = abertura.plusSeconds(updateSeconds);
+            if (atualizacao.isAfter(until)) {
+                atualizacao = until;
+            }
+            
+            row(batch.incidents, id, SyntheticData.titulo(random),
+                    SyntheticData.text(random, 100 + random.nextInt(1400)),
+                    SyntheticData.PRIORIDADE.next(random), status, SyntheticData.responsavel(random),
+                    timestamp(abertura), timestamp(atualizacao));
+            
+            List<String> tags = SyntheticData.tags(random);
+            for (String tag : tags) {
+                row(batch.tags, id, tag);
+            }
+            batch.tagRows += tags.size();
+            
+            double mean = commentsMean * (closed ? 1.3 : 0.6) * (random.nextDouble() < 0.01 ? 20 : 1);
+            int comments = (int) Math.min(MAX_COMMENTS, Math.round(SyntheticData.exponential(random, mean)));
+            long window = Math.max(1, ChronoUnit.SECONDS.between(abertura, atualizacao));
+            for (int c = 0; c < comments; c++) {
+                LocalDateTime criacao = abertura.plusSeconds((long) (random.nextDouble() * window));
+                row(batch.comments, SyntheticData.uuid(random), id, "Analista " + random.nextInt(50),
+                        SyntheticData.text(random, 20 + random.nextInt(300)), timestamp(criacao));
+            }
+            batch.commentRows += comments;
+        }
+        return batch;
+    }
+    
+    private static String timestamp(LocalDateTime value) {
+        return value.truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+    
+    /**
+     * Linha no formato texto do COPY (colunas separadas por tabulação)
+     */
+    private static void row(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append('\t');
+            }
+            String value = values[i].toString();
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                switch (ch) {
+                    case '\\' -> out.append("\\\\");
+                    case '\t' -> out.append("\\t");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    default -> out.append(ch);
+                }
+            }
+        }
+        out.append('\n');
+    }
+    
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+    
+    private static final class Batch {
+        
+        private final StringBuilder incidents;
+        private final StringBuilder tags;
+        private final StringBuilder comments;
+        private long tagRows;
+        private long commentRows;
+        
+        private Batch(int count) {
+            this.incidents = new StringBuilder(count * 1_000);
+            this.tags = new StringBuilder(count * 100);
+            this.comments = new StringBuilder(count * 600);
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.incidents.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carga mista em malha fechada: {@code concurrency} workers, cada um envia uma requisição,
+ * espera a resposta e sorteia a próxima operação conforme {@code mix}. Com {@code rate} > 0
+ * os workers dividem uma agenda de {@code rate} requisições/s e a latência é medida a partir
+ * do horário agendado, não do envio: atrasos do servidor que empurram a agenda entram nos
+ * percentis (sem omissão coordenada).
+ * <p>
+ * Leituras usam os incidentes mais recentes da massa; o PATCH de status só altera incidentes
+ * criados pela própria carga, para que execuções sobre a mesma massa sejam comparáveis.
+ * Latências do período de aquecimento ({@code warmup}) são descartadas. O relatório (JSON)
+ * registra commit, opções e estatísticas da massa; com {@code compare} as diferenças em
+ * relação a um relatório anterior são impressas.
+ */
+final class LoadGenerator {
+    
+    enum Operation {
+        LIST, SEARCH, DETAIL, COMMENTS, STATS, LOGIN, CREATE, PATCH;
+        
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+    
+    private static final String DEFAULT_MIX =
+            "list:30,search:12,detail:25,comments:12,stats:8,login:3,create:6,patch:4";
+    private static final String[] PATCH_STATUS = {"EM_ANDAMENTO", "RESOLVIDA", "CANCELADA", "ABERTA"};
+    private static final int CREATED_RING_SIZE = 1024;
+    // Opções que não afetam a comparação entre relatórios
+    private static final Set<String> COMPARISON_IGNORED = Set.of("label", "out", "compare");
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadOptions options;
+    private final String baseUrl;
+    private final String email;
+    private final String password;
+    private final int concurrency;
+    private final double rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration timeout;
+    private final SyntheticData.Weighted<Operation> mix;
+    private final long seed;
+    private final int idPoolSize;
+    private final int pageSize;
+    private final boolean gzip;
+    private final Path out;
+    private final String label;
+    private final String compare;
+    private final HttpClient client;
+    
+    private final AtomicReferenceArray<UUID> created = new AtomicReferenceArray<>(CREATED_RING_SIZE);
+    private final AtomicLong createdCount = new AtomicLong();
+    private List<UUID> ids;
+    private volatile String token;
+    
+    LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.baseUrl = options.getString("base-url", "http://localhost:8080");
+        this.email = options.getString("email", "admin@incidents.com");
+        this.password = options.getString("password", "password");
+        this.concurrency = options.getInt("concurrency", 16);
+        this.rate = options.getDouble("rate", 0);
+        this.duration = options.getDuration("duration", "60s");
+        this.warmup = options.getDuration("warmup", "15s");
+        this.timeout = options.getDuration("timeout", "30s");
+        this.mix = parseMix(options.getString("mix", DEFAULT_MIX));
+        this.seed = options.getLong("seed", 42);
+        this.idPoolSize = options.getInt("id-pool", 5_000);
+        this.pageSize = options.getInt("page-size", 20);
+        this.gzip = options.getBoolean("gzip", true);
+        this.out = Path.of(options.getString("out", "target/load-result.json"));
+        this.label = options.getString("label", "");
+        this.compare = options.getString("compare", "");
+        options.requireAllUsed();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    void run() throws Exception {
+        token = login();
+        JsonNode dataset = getJson("/stats/incidents");
+        ids = loadIds();
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Nenhum incidente encontrado; execute o seed antes da carga");
+        }
+        System.out.printf("%d workers, %s, aquecimento %s, medição %s, %d incidentes no pool de leitura%n",
+                concurrency, rate > 0 ? rate + " req/s" : "sem limite de taxa", warmup, duration, ids.size());
+        
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicLong schedule = new AtomicLong(start);
+        long interval = rate > 0 ? (long) (1e9 / rate) : 0;
+        
+        List<Worker> workers = new ArrayList<>(concurrency);
+        List<Thread> threads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(new Random(seed + i), start, measureFrom, end, schedule, interval);
+            workers.add(worker);
+            threads.add(Thread.ofVirtual().name("load-worker-" + i).start(worker));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        Map<Operation, Stats> total = new EnumMap<>(Operation.class);
+        for (Worker worker : workers) {
+            worker.stats.forEach((operation, stats) -> total.computeIfAbsent(operation, key -> new Stats()).add(stats));
+        }
+        ObjectNode report = report(total, dataset);
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), report);
+        print(report);
+        System.out.println("Relatório gravado em " + out.toAbsolutePath());
+        if (!compare.isBlank()) {
+            printComparison(objectMapper.readTree(Path.of(compare).toFile()), report);
+        }
+    }
+    
+    /**
+     * Executa operações até o fim da medição, registrando só as agendadas após o aquecimento
+     */
+    private final class Worker implements Runnable {
+        
+        private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        private final Random random;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final AtomicLong schedule;
+        private final long interval;
+        
+        private Worker(Random random, long start, long measureFrom, long end, AtomicLong schedule, long interval) {
+            this.random = random;
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.schedule = schedule;
+            this.interval = interval;
+        }
+        
+        @Override
+        public void run() {
+            sleepUntil(start);
+            while (true) {
+                long intended = interval > 0 ? schedule.getAndAdd(interval) : System.nanoTime();
+                if (intended >= end) {
+                    return;
+                }
+                sleepUntil(intended);
+                
+                Operation operation = mix.next(random);
+                if (operation == Operation.PATCH && createdCount.get() == 0) {
+                    operation = Operation.CREATE;
+                }
+                Result result = execute(operation, random);
+                long latency = System.nanoTime() - intended;
+                if (intended >= measureFrom) {
+                    stats.computeIfAbsent(operation, key -> new Stats()).record(latency, result);
+                }
+            }
+        }
+    }
+    
+    private Result execute(Operation operation, Random random) {
+        try {
+            return switch (operation) {
+                case LIST -> send(get(listPath(random)), false);
+                case SEARCH -> send(get("/incidents?size=" + pageSize + "&q=" + encode(SyntheticData.searchTerm(random))), false);
+                case DETAIL -> send(get("/incidents/" + readId(random)), false);
+                case COMMENTS -> send(get("/comments/incident/" + readId(random)), false);
+                case STATS -> send(get("/stats/incidents"), false);
+                case LOGIN -> send(loginRequest(), false);
+                case CREATE -> send(post("/incidents", incidentBody(random)), true);
+                case PATCH -> send(request("/incidents/" + createdId(random) + "/status?status="
+                        + SyntheticData.pick(random, PATCH_STATUS))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build(), false);
+            };
+        } catch (HttpTimeoutException e) {
+            return Result.failure("timeout");
+        } catch (IOException e) {
+            return Result.failure(e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure("interrupted");
+        }
+    }
+    
+    /**
+     * Listagem paginada com filtros combinados como na interface: status, prioridade,
+     * tag e responsável, páginas iniciais mais frequentes
+     */
+    private String listPath(Random random) {
+        StringBuilder path = new StringBuilder("/incidents?size=").append(pageSize)
+                .append("&page=").append(Math.min(50, (int) SyntheticData.exponential(random, 1.5)));
+        if (random.nextDouble() < 0.5) {
+            path.append("&status=").append(random.nextDouble() < 0.7
+                    ? SyntheticData.STATUS_RECENT.next(random) : SyntheticData.STATUS_OLD.next(random));
+        }
+        if (random.nextDouble() < 0.3) {
+            path.append("&prioridade=").append(SyntheticData.PRIORIDADE.next(random));
+        }
+        if (random.nextDouble() < 0.25) {
+            path.append("&tags=").append(SyntheticData.TAG.next(random));
+        }
+        if (random.nextDouble() < 0.1) {
+            path.append("&responsavel=").append(encode(SyntheticData.responsavel(random)));
+        }
+        return path.toString();
+    }
+    
+    private String incidentBody(Random random) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("titulo", SyntheticData.titulo(random));
+        body.put("descricao", SyntheticData.text(random, 100 + random.nextInt(900)));
+        body.put("prioridade", SyntheticData.PRIORIDADE.next(random));
+        body.put("status", "ABERTA");
+        body.put("responsavelEmail", SyntheticData.responsavel(random));
+        body.put("tags", SyntheticData.tags(random));
+        return objectMapper.writeValueAsString(body);
+    }
+    
+    private UUID readId(Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+    
+    private UUID createdId(Random random) {
+        long count = Math.min(createdCount.get(), CREATED_RING_SIZE);
+        return created.get(random.nextInt((int) count));
+    }
+    
+    /**
+     * Envia e consome a resposta; o id dos incidentes criados com sucesso vai para o anel do PATCH
+     */
+    private Result send(HttpRequest request, boolean captureCreated) throws IOException, InterruptedException {
+        if (captureCreated) {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 201) {
+                UUID id = UUID.fromString(objectMapper.readTree(response.body()).get("id").asText());
+                long index = createdCount.getAndIncrement();
+                created.set((int) (index % CREATED_RING_SIZE), id);
+            }
+            return Result.of(response.statusCode(), response.body().length);
+        }
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        long bytes;
+        try (InputStream body = response.body()) {
+            bytes = body.transferTo(OutputStream.nullOutputStream());
+        }
+        return Result.of(response.statusCode(), bytes);
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + token);
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder;
+    }
+    
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+    
+    /**
+     * POST sem Accept-Encoding: a resposta é lida como JSON
+     */
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+    
+    private HttpRequest loginRequest() throws IOException {
+        String body = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+    
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login falhou (" + response.statusCode() + "): " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+    
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " falhou (" + response.statusCode() + ")");
+        }
+        return objectMapper.readTree(response.body());
+    }
+    
+    /**
+     * Ids dos incidentes mais recentes, percorridos pelo cursor
+     */
+    private List<UUID> loadIds() throws IOException, InterruptedException {
+        List<UUID> loaded = new ArrayList<>(idPoolSize);
+        String cursor = "";
+        while (loaded.size() < idPoolSize && cursor != null) {
+            JsonNode page = getJson("/incidents?fields=id&size=100&cursor=" + encode(cursor));
+            for (JsonNode incident : page.get("content")) {
+                if (loaded.size() < idPoolSize) {
+                    loaded.add(UUID.fromString(incident.get("id").asText()));
+                }
+            }
+            JsonNode next = page.get("next");
+            cursor = next == null || next.isNull() ? null : next.asText();
+        }
+        return loaded;
+    }
+    
+    private ObjectNode report(Map<Operation, Stats> total, JsonNode dataset) {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("label", label);
+        report.put("commit", gitCommit());
+        report.put("timestamp", Instant.now().toString());
+        report.set("options", objectMapper.valueToTree(options.effective()));
+        report.set("dataset", dataset);
+        
+        double seconds = duration.toNanos() / 1e9;
+        Stats all = new Stats();
+        ObjectNode endpoints = report.putObject("endpoints");
+        for (Operation operation : Operation.values()) {
+            Stats stats = total.get(operation);
+            if (stats != null) {
+                endpoints.set(operation.key(), stats.toJson(seconds));
+                all.add(stats);
+            }
+        }
+        report.set("total", all.toJson(seconds));
+        return report;
+    }
+    
+    private static void print(JsonNode report) {
+        System.out.printf("%n%-10s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        report.get("endpoints").fields().forEachRemaining(entry -> printRow(entry.getKey(), entry.getValue()));
+        printRow("total", report.get("total"));
+    }
+    
+    private static void printRow(String name, JsonNode stats) {
+        System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name,
+                stats.get("requests").asLong(), stats.get("errors").asLong(), stats.get("throughput").asDouble(),
+                stats.get("p50").asDouble(), stats.get("p95").asDouble(), stats.get("p99").asDouble(),
+                stats.get("max").asDouble());
+    }
+    
+    /**
+     * Variação percentual de throughput e percentis em relação ao relatório anterior
+     */
+    private static void printComparison(JsonNode baseline, JsonNode current) {
+        System.out.printf("%nComparação com %s (%s):%n", baseline.path("commit").asText(), baseline.path("label").asText());
+        current.get("options").fields().forEachRemaining(option -> {
+            String previous = baseline.path("options").path(option.getKey()).asText(null);
+            if (!COMPARISON_IGNORED.contains(option.getKey()) && !option.getValue().asText().equals(previous)) {
+                System.out.printf("  atenção: --%s=%s (antes %s)%n", option.getKey(), option.getValue().asText(), previous);
+            }
+        });
+        if (!current.get("dataset").path("total").equals(baseline.path("dataset").path("total"))) {
+            System.out.printf("  atenção: massa com %s incidentes (antes %s)%n",
+                    current.get("dataset").path("total"), baseline.path("dataset").path("total"));
+        }
+        System.out.printf("%-10s %10s %9s %9s %9s%n", "endpoint", "req/s", "p50", "p95", "p99");
+        Map<String, JsonNode> rows = new LinkedHashMap<>();
+        current.get("endpoints").fields().forEachRemaining(entry -> rows.put(entry.getKey(), entry.getValue()));
+        rows.put("total", current.get("total"));
+        rows.forEach((name, stats) -> {
+            JsonNode before = name.equals("total") ? baseline.get("total") : baseline.path("endpoints").get(name);
+            if (before == null) {
+                return;
+            }
+            System.out.printf("%-10s %10s %9s %9s %9s%n", name,
+                    delta(before, stats, "throughput"), delta(before, stats, "p50"),
+                    delta(before, stats, "p95"), delta(before, stats, "p99"));
+        });
+    }
+    
+    private static String delta(JsonNode before, JsonNode after, String field) {
+        double previous = before.path(field).asDouble();
+        if (previous == 0) {
+            return "-";
+        }
+        return String.format("%+.1f%%", (after.path(field).asDouble() - previous) * 100 / previous);
+    }
+    
+    /**
+     * Commit do working tree, com sufixo -dirty quando há alterações não commitadas
+     */
+    private static String gitCommit() {
+        String commit = git("rev-parse", "--short", "HEAD");
+        if (commit.isEmpty()) {
+            return "unknown";
+        }
+        return git("status", "--porcelain", "--untracked-files=no").isEmpty() ? commit : commit + "-dirty";
+    }
+    
+    private static String git(String... args) {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor() == 0 ? output : "";
+        } catch (IOException e) {
+            return "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        }
+    }
+    
+    private static SyntheticData.Weighted<Operation> parseMix(String spec) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada inválida em --mix: " + entry);
+            }
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix sem operações");
+        }
+        return new SyntheticData.Weighted<>(
+                weights.keySet().toArray(new Operation[0]),
+                weights.values().stream().mapToDouble(Double::doubleValue).toArray());
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+    
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+    
+    /**
+     * Status HTTP (ou a falha de transporte) e bytes recebidos de uma requisição
+     */
+    private record Result(int status, long bytes, String failure) {
+        
+        static Result of(int status, long bytes) {
+            return new Result(status, bytes, null);
+        }
+        
+        static Result failure(String failure) {
+            return new Result(0, 0, failure);
+        }
+        
+        boolean isError() {
+            return failure != null || (status >= 400 || status < 200);
+        }
+        
+        String errorKey() {
+            return failure != null ? failure : String.valueOf(status);
+        }
+    }
+    
+    /**
+     * Latências (em microssegundos) e erros de um endpoint; falhas também entram nos percentis
+     */
+    private static final class Stats {
+        
+        private final Histogram histogram = new Histogram(3);
+        private final Map<String, Long> errors = new TreeMap<>();
+        private long bytes;
+        
+        void record(long latencyNanos, Result result) {
+            histogram.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            bytes += result.bytes();
+            if (result.isError()) {
+                errors.merge(result.errorKey(), 1L, Long::sum);
+            }
+        }
+        
+        void add(Stats other) {
+            histogram.add(other.histogram);
+            other.errors.forEach((key, count) -> errors.merge(key, count, Long::sum));
+            bytes += other.bytes;
+        }
+        
+        ObjectNode toJson(double seconds) {
+            ObjectNode json = JsonNodeFactory.instance.objectNode();
+            long requests = histogram.getTotalCount();
+            json.put("requests", requests);
+            json.put("errors", errors.values().stream().mapToLong(Long::longValue).sum());
+            json.put("throughput", round(requests / seconds));
+            json.put("mean", millis(histogram.getMean()));
+            json.put("p50", millis(histogram.getValueAtPercentile(50)));
+            json.put("p95", millis(histogram.getValueAtPercentile(95)));
+            json.put("p99", millis(histogram.getValueAtPercentile(99)));
+            json.put("max", millis(histogram.getMaxValue()));
+            json.put("bytesPerRequest", requests == 0 ? 0 : bytes / requests);
+            if (!errors.isEmpty()) {
+                StringJoiner detail = new StringJoiner(", ");
+                errors.forEach((key, count) -> detail.add(key + "=" + count));
+                json.put("errorDetail", detail.toString());
+            }
+            return json;
+        }
+        
+        private static double millis(double micros) {
+            return round(micros / 1000);
+        }
+        
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.incidents.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Opções de linha de comando no formato {@code --nome=valor}. Cada opção lida é removida;
+ * as que sobrarem ao final (erro de digitação) interrompem a execução.
+ */
+final class LoadOptions {
+    
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private final Map<String, String> used = new TreeMap<>();
+    
+    private LoadOptions() {
+    }
+    
+    static LoadOptions parse(String[] args, int from) {
+        LoadOptions options = new LoadOptions();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            String value = separator < 0 ? "true" : arg.substring(separator + 1);
+            options.pending.put(name, value);
+        }
+        return options;
+    }
+    
+    String getString(String name, String defaultValue) {
+        String value = pending.containsKey(name) ? pending.remove(name) : defaultValue;
+        used.put(name, value);
+        return value;
+    }
+    
+    int getInt(String name, int defaultValue) {
+        return Integer.parseInt(getString(name, String.valueOf(defaultValue)).replace("_", ""));
+    }
+    
+    long getLong(String name, long defaultValue) {
+        return Long.parseLong(getString(name, String.valueOf(defaultValue)).replace("_", ""));
+    }
+    
+    double getDouble(String name, double defaultValue) {
+        return Double.parseDouble(getString(name, String.valueOf(defaultValue)));
+    }
+    
+    boolean getBoolean(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(getString(name, String.valueOf(defaultValue)));
+    }
+    
+    /**
+     * Durações no formato do application.yml (60s, 5m, 500ms)
+     */
+    Duration getDuration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(getString(name, defaultValue));
+    }
+    
+    /**
+     * Opções efetivas (informadas e padrões), gravadas no relatório; a senha fica de fora
+     */
+    Map<String, String> effective() {
+        Map<String, String> effective = new TreeMap<>(used);
+        effective.remove("password");
+        effective.remove("jdbc-password");
+        return effective;
+    }
+    
+    void requireAllUsed() {
+        if (!pending.isEmpty()) {
+            throw new IllegalArgumentException("Opções desconhecidas: " + pending.keySet());
+        }
+    }
+}
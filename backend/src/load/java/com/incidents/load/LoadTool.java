@@ -0,0 +1,29 @@
+package com.incidents.load;
+
+/**
+ * Ferramenta de carga do backend:
+ * <ul>
+ *   <li>{@code seed}: popula o Postgres com incidentes, tags e comentários sintéticos ({@link DataSeeder})</li>
+ *   <li>{@code run}: executa a carga mista contra a API e grava as latências por endpoint ({@link LoadGenerator})</li>
+ * </ul>
+ * Executada pelo profile Maven {@code load}; opções no formato {@code --nome=valor} (ver README).
+ */
+public final class LoadTool {
+    
+    private LoadTool() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("seed") || args[0].equals("run"))) {
+            System.err.println("Uso: LoadTool seed|run [--opcao=valor ...]");
+            System.exit(2);
+        }
+        
+        LoadOptions options = LoadOptions.parse(args, 1);
+        if (args[0].equals("seed")) {
+            new DataSeeder(options).seed();
+        } else {
+            new LoadGenerator(options).run();
+        }
+    }
+}
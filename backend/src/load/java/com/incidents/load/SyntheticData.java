@@ -0,0 +1,185 @@
+package com.incidents.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Vocabulário e distribuições compartilhados pelo seeder e pelo gerador de carga, para que
+ * filtros e buscas da carga encontrem os dados gerados. Tudo a partir de um Random com
+ * semente fixa: a mesma semente gera a mesma massa e a mesma sequência de requisições.
+ */
+final class SyntheticData {
+    
+    static final String[] PROBLEMS = {
+            "Lentidão", "Falha", "Erro 500", "Timeout", "Indisponibilidade", "Vazamento de memória",
+            "Alto uso de CPU", "Perda de pacotes", "Certificado expirado", "Fila acumulada"};
+    
+    static final String[] COMPONENTS = {
+            "banco de dados", "gateway de pagamentos", "login", "fila de mensagens", "cache", "DNS",
+            "balanceador", "API de pedidos", "portal do cliente", "aplicativo móvel", "relatórios",
+            "integração com ERP", "serviço de e-mail", "armazenamento", "VPN", "catálogo de produtos"};
+    
+    static final String[] ENVIRONMENTS = {"produção", "homologação", "desenvolvimento"};
+    
+    static final String[] TAGS = {
+            "database", "network", "api", "frontend", "auth", "cache", "infra", "deploy", "payments",
+            "mobile", "security", "performance", "storage", "dns", "vpn", "email", "reports", "erp",
+            "queue", "monitoring", "backup", "kubernetes", "ssl", "billing", "search", "cdn", "logging",
+            "scheduler", "integration", "customer"};
+    
+    /** Servidores citados nos títulos: identificadores raros, buscados com frequência */
+    static final int HOSTS = 5_000;
+    
+    /** Palavras frequentes dos títulos (buscas amplas, milhares de resultados a ranquear) */
+    static final Weighted<String> SEARCH_TERM = Weighted.zipf(new String[]{
+            "timeout", "falha", "cache", "login", "lentidão", "pagamentos", "dns", "fila", "balanceador",
+            "pedidos", "vpn", "relatórios", "certificado expirado", "vazamento de memória", "perda de pacotes"}, 0.8);
+    
+    private static final double HOST_SEARCH_RATIO = 0.7;
+    
+    private static final String[] WORDS = {
+            "usuários", "relatam", "erro", "ao", "acessar", "o", "sistema", "após", "a", "última",
+            "atualização", "do", "serviço", "com", "tempo", "de", "resposta", "acima", "esperado",
+            "logs", "indicam", "conexões", "recusadas", "pelo", "servidor", "em", "horário", "pico",
+            "equipe", "investigando", "causa", "raiz", "impacto", "parcial", "nas", "operações"};
+    
+    static final Weighted<String> STATUS_RECENT = new Weighted<>(
+            new String[]{"ABERTA", "EM_ANDAMENTO", "RESOLVIDA", "CANCELADA"}, new double[]{45, 35, 15, 5});
+    
+    static final Weighted<String> STATUS_OLD = new Weighted<>(
+            new String[]{"ABERTA", "EM_ANDAMENTO", "RESOLVIDA", "CANCELADA"}, new double[]{3, 2, 83, 12});
+    
+    static final Weighted<String> PRIORIDADE = new Weighted<>(
+            new String[]{"BAIXA", "MEDIA", "ALTA"}, new double[]{50, 35, 15});
+    
+    /** Poucas tags concentram a maior parte dos incidentes (Zipf) */
+    static final Weighted<String> TAG = Weighted.zipf(TAGS, 1.1);
+    
+    static final Weighted<Integer> TAG_COUNT = new Weighted<>(
+            new Integer[]{0, 1, 2, 3, 4}, new double[]{10, 35, 30, 17, 8});
+    
+    static final int RESPONSAVEIS = 200;
+    
+    /** Poucos responsáveis concentram a maior parte dos incidentes (Zipf) */
+    static final Weighted<Integer> RESPONSAVEL = Weighted.zipf(sequence(RESPONSAVEIS), 1.0);
+    
+    private SyntheticData() {
+    }
+    
+    static String titulo(Random random) {
+        return pick(random, PROBLEMS) + " em " + pick(random, COMPONENTS) + " (" + pick(random, ENVIRONMENTS) + ") - "
+                + host(random);
+    }
+    
+    static String host(Random random) {
+        return String.format("srv%04d", random.nextInt(HOSTS));
+    }
+    
+    /**
+     * Termo de busca: na maior parte um servidor (seletivo), senão uma palavra frequente
+     */
+    static String searchTerm(Random random) {
+        return random.nextDouble() < HOST_SEARCH_RATIO ? host(random) : SEARCH_TERM.next(random);
+    }
+    
+    static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(pick(random, WORDS)).append(' ');
+        }
+        text.setLength(length);
+        return text.toString().trim();
+    }
+    
+    static String responsavel(Random random) {
+        return "responsavel" + RESPONSAVEL.next(random) + "@incidents.com";
+    }
+    
+    /**
+     * Tags distintas, na quantidade sorteada por TAG_COUNT
+     */
+    static List<String> tags(Random random) {
+        int count = TAG_COUNT.next(random);
+        List<String> tags = new ArrayList<>(count);
+        while (tags.size() < count) {
+            String tag = TAG.next(random);
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+    
+    /**
+     * UUID versão 4 derivado do Random (reprodutível, ao contrário de UUID.randomUUID)
+     */
+    static UUID uuid(Random random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+    
+    /**
+     * Valor com distribuição exponencial de média {@code mean}
+     */
+    static double exponential(Random random, double mean) {
+        return -Math.log(1 - random.nextDouble()) * mean;
+    }
+    
+    static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static Integer[] sequence(int count) {
+        Integer[] values = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+    
+    /**
+     * Sorteio de valores com pesos relativos
+     */
+    static final class Weighted<T> {
+        
+        private final T[] values;
+        private final double[] cumulative;
+        
+        Weighted(T[] values, double[] weights) {
+            this.values = values;
+            this.cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= total;
+            }
+        }
+        
+        /**
+         * Peso do i-ésimo valor proporcional a 1/(i+1)^exponent
+         */
+        static <T> Weighted<T> zipf(T[] values, double exponent) {
+            double[] weights = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                weights[i] = 1 / Math.pow(i + 1, exponent);
+            }
+            return new Weighted<>(values, weights);
+        }
+        
+        T next(Random random) {
+            double r = random.nextDouble();
+            for (int i = 0; i < cumulative.length - 1; i++) {
+                if (r < cumulative[i]) {
+                    return values[i];
+                }
+            }
+            return values[values.length - 1];
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.incidents.cache;
+
+import com.incidents.event.BatchImportedEvent;
+import com.incidents.event.CommentChangedEvent;
+import com.incidents.event.IncidentChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Invalidação direcionada após cada escrita confirmada: remove apenas as chaves
+ * do registro alterado (objeto e respostas serializadas) e avança as gerações das
+ * listagens afetadas. Com réplicas de
+ * leitura, a invalidação é repetida após {@code replica-max-lag}: uma leitura feita na
+ * réplica ainda atrasada pode ter recolocado o valor antigo no cache.
+ */
+@Component
+public class CacheInvalidationListener {
+    
+    private final CacheManager cacheManager;
+    private final ResponseCache responseCache;
+    private final IncidentCacheGenerations generations;
+    private final TaskScheduler taskScheduler;
+    private final boolean replicated;
+    private final Duration replicaMaxLag;
+    
+    public CacheInvalidationListener(
+            CacheManager cacheManager,
+            ResponseCache responseCache,
+            IncidentCacheGenerations generations,
+            TaskScheduler taskScheduler,
+            @Value("${incidents.datasource.replicas:}") String[] replicas,
+            @Value("${incidents.datasource.replica-max-lag:5s}") Duration replicaMaxLag
+    ) {
+        this.cacheManager = cacheManager;
+        this.responseCache = responseCache;
+        this.generations = generations;
+        this.taskScheduler = taskScheduler;
+        this.replicated = replicas.length > 0;
+        this.replicaMaxLag = replicaMaxLag;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        invalidate(event);
+        if (replicated) {
+            taskScheduler.schedule(() -> invalidate(event), Instant.now().plus(replicaMaxLag));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        String comments = ResponseCache.commentsKey(event.getIncidentId());
+        responseCache.evict(comments);
+        if (replicated) {
+            taskScheduler.schedule(() -> responseCache.evict(comments), Instant.now().plus(replicaMaxLag));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatchImported(BatchImportedEvent event) {
+        invalidate(event);
+        if (replicated) {
+            taskScheduler.schedule(() -> invalidate(event), Instant.now().plus(replicaMaxLag));
+        }
+    }
+    
+    private void invalidate(IncidentChangedEvent event) {
+        generations.advance(event);
+        evict("incidentById", event.getIncidentId());
+        responseCache.evict(ResponseCache.incidentKey(event.getIncidentId()));
+        if (event.isDeleted()) {
+            responseCache.evict(ResponseCache.commentsKey(event.getIncidentId()));
+        }
+    }
+    
+    // Incidentes recém-criados não têm entradas próprias: basta avançar as gerações uma vez
+    private void invalidate(BatchImportedEvent event) {
+        if (!event.getIncidents().isEmpty()) {
+            generations.advance(event.getIncidents());
+        }
+        event.getComments().stream()
+                .map(CommentChangedEvent::getIncidentId)
+                .distinct()
+                .forEach(incidentId -> responseCache.evict(ResponseCache.commentsKey(incidentId)));
+    }
+    
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.incidents.cache;
+
+import com.incidents.dto.IncidentFilter;
+import com.incidents.event.IncidentChangedEvent;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerações das chaves das listagens no ResponseCache. Uma escrita incrementa apenas as gerações
+ * do status e da prioridade (anteriores e atuais) do incidente alterado, além da global;
+ * listagens filtradas por outros valores continuam válidas. Entradas de gerações
+ * antigas deixam de ser lidas e saem pelo TTL ou pelo limite de bytes do cache.
+ */
+@Component("incidentCacheGenerations")
+public class IncidentCacheGenerations {
+    
+    private final AtomicLong global = new AtomicLong();
+    private final Map<Status, AtomicLong> byStatus = new EnumMap<>(Status.class);
+    private final Map<Prioridade, AtomicLong> byPrioridade = new EnumMap<>(Prioridade.class);
+    
+    public IncidentCacheGenerations() {
+        for (Status status : Status.values()) {
+            byStatus.put(status, new AtomicLong());
+        }
+        for (Prioridade prioridade : Prioridade.values()) {
+            byPrioridade.put(prioridade, new AtomicLong());
+        }
+    }
+    
+    /**
+     * Prefixo de chave com as gerações que podem afetar o resultado do filtro.
+     * Sem status nem prioridade, qualquer escrita afeta a listagem (geração global).
+     */
+    public String listKey(IncidentFilter filter) {
+        StringBuilder key = new StringBuilder();
+        if (filter.getStatus() != null) {
+            key.append('s').append(byStatus.get(filter.getStatus()).get());
+        }
+        if (filter.getPrioridade() != null) {
+            key.append('p').append(byPrioridade.get(filter.getPrioridade()).get());
+        }
+        if (key.length() == 0) {
+            key.append('g').append(global.get());
+        }
+        return key.append('_').append(filter.cacheKey()).toString();
+    }
+    
+    public void advance(IncidentChangedEvent event) {
+        global.incrementAndGet();
+        advance(event.getPreviousStatus(), event.getPreviousPrioridade());
+        // Mesmo valor antes e depois: uma única troca de geração basta
+        advance(event.getStatus() == event.getPreviousStatus() ? null : event.getStatus(),
+                event.getPrioridade() == event.getPreviousPrioridade() ? null : event.getPrioridade());
+    }
+    
+    /**
+     * Vários incidentes de uma vez (importação em lote): cada geração afetada avança uma única vez
+     */
+    public void advance(Collection<IncidentChangedEvent> events) {
+        global.incrementAndGet();
+        Set<Status> statuses = EnumSet.noneOf(Status.class);
+        Set<Prioridade> prioridades = EnumSet.noneOf(Prioridade.class);
+        for (IncidentChangedEvent event : events) {
+            for (Status status : new Status[]{event.getPreviousStatus(), event.getStatus()}) {
+                if (status != null) {
+                    statuses.add(status);
+                }
+            }
+            for (Prioridade prioridade : new Prioridade[]{event.getPreviousPrioridade(), event.getPrioridade()}) {
+                if (prioridade != null) {
+                    prioridades.add(prioridade);
+                }
+            }
+        }
+        statuses.forEach(status -> byStatus.get(status).incrementAndGet());
+        prioridades.forEach(prioridade -> byPrioridade.get(prioridade).incrementAndGet());
+    }
+    
+    private void advance(Status status, Prioridade prioridade) {
+        if (status != null) {
+            byStatus.get(status).incrementAndGet();
+        }
+        if (prioridade != null) {
+            byPrioridade.get(prioridade).incrementAndGet();
+        }
+    }
+}
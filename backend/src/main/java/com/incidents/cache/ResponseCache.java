@@ -0,0 +1,279 @@
+package com.incidents.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respostas de leitura já serializadas no formato negociado (JSON, CBOR ou Smile) e
+ * comprimidas com gzip a partir de {@code compress-min-size}. O limite é o total de bytes
+ * guardados ({@code max-size}), não o número de entradas: uma página de 100 itens pesa o
+ * que ocupa. Um acerto vira uma única escrita do buffer, já com Content-Encoding quando o
+ * cliente aceita gzip. Cada entrada é um recurso com suas variantes (formato e parâmetros),
+ * removidas juntas na invalidação; registrada no CacheManager como "responses". Uma
+ * resposta carregada antes de uma invalidação do recurso não é guardada depois dela.
+ */
+@Component
+public class ResponseCache {
+    
+    public static final String CACHE_NAME = "responses";
+    
+    // Overhead aproximado por variante (objetos, chave e cabeçalhos), somado ao corpo
+    private static final int VARIANT_OVERHEAD = 200;
+    
+    // Faixas de versões por hash do recurso; colisões só fazem perder um store
+    private static final int VERSION_STRIPES = 4096;
+    
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+    private final Cache<Object, Object> cache;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final boolean compress;
+    private final long compressMinSize;
+    
+    public ResponseCache(
+            CacheManager cacheManager,
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter,
+            @Value("${incidents.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${incidents.response-cache.ttl:1h}") Duration ttl,
+            @Value("${incidents.response-cache.compress:true}") boolean compress,
+            @Value("${incidents.response-cache.compress-min-size:2KB}") DataSize compressMinSize
+    ) {
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        mappers.put(new MediaType("application", "x-jackson-smile"), smileConverter.getObjectMapper());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Object key, Object value) -> ((Variants) value).weight)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.compress = compress;
+        this.compressMinSize = compressMinSize.toBytes();
+        // Limpeza junto com os demais caches (reconexão do PostgresEventRelay) e métricas
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache(CACHE_NAME, cache);
+        }
+    }
+    
+    /**
+     * Responde a partir do cache ou, na falta, com o resultado de {@code loader}. Só respostas
+     * 200 com corpo são guardadas (com ETag e Last-Modified); as demais passam direto, assim
+     * como pedidos sem formato suportado no Accept, deixados para a negociação do Spring MVC.
+     */
+    public ResponseEntity<?> respond(HttpServletRequest request, String resource, String variant,
+                                     Supplier<ResponseEntity<?>> loader) {
+        MediaType format = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (format == null) {
+            return loader.get();
+        }
+        
+        String key = variant + "|" + format;
+        CachedResponse cached = cache.getIfPresent(resource) instanceof Variants variants ? variants.get(key) : null;
+        if (cached == null) {
+            // Lida antes da consulta: se uma escrita invalidar o recurso enquanto o loader
+            // executa, o resultado (possivelmente anterior à escrita) é respondido, mas não guardado
+            long version = versions.get(stripe(resource));
+            ResponseEntity<?> response = loader.get();
+            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                return response;
+            }
+            cached = render(format, response);
+            store(resource, key, cached, version);
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (cached.etag != null) {
+            builder.eTag(cached.etag);
+        }
+        if (cached.lastModified >= 0) {
+            builder.lastModified(cached.lastModified);
+        }
+        if (!cached.gzip) {
+            return builder.body(cached.body);
+        }
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.body);
+        }
+        return builder.body(gunzip(cached.body));
+    }
+    
+    public static String incidentKey(UUID id) {
+        return "incident_" + id;
+    }
+    
+    public static String commentsKey(UUID incidentId) {
+        return "comments_" + incidentId;
+    }
+    
+    /**
+     * Remove todas as variantes do recurso; carregamentos já em andamento não são guardados
+     */
+    public void evict(String resource) {
+        versions.incrementAndGet(stripe(resource));
+        cache.invalidate(resource);
+    }
+    
+    public Cache<Object, Object> getNativeCache() {
+        return cache;
+    }
+    
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+    
+    private CachedResponse render(MediaType format, ResponseEntity<?> response) {
+        byte[] body;
+        try {
+            body = mappers.get(format).writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta", e);
+        }
+        boolean gzip = compress && body.length >= compressMinSize;
+        HttpHeaders headers = response.getHeaders();
+        return new CachedResponse(gzip ? gzip(body) : body, gzip, headers.getETag(), headers.getLastModified());
+    }
+    
+    /**
+     * Guarda a variante se o recurso não foi invalidado desde a leitura de {@code version};
+     * a verificação dentro do compute é atômica em relação ao invalidate de evict()
+     */
+    private void store(String resource, String key, CachedResponse response, long version) {
+        cache.asMap().compute(resource, (ignored, current) -> {
+            if (versions.get(stripe(resource)) != version) {
+                return current;
+            }
+            return (current instanceof Variants variants ? variants : Variants.EMPTY).with(key, response);
+        });
+    }
+    
+    private static int stripe(String resource) {
+        int hash = resource.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+    
+    /**
+     * Primeiro formato suportado na ordem de preferência do Accept; sem Accept, JSON
+     */
+    private MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        // Ordenação estável: empates mantêm a ordem do header
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType candidate : accepted) {
+            if (candidate.getQualityValue() <= 0) {
+                continue;
+            }
+            for (MediaType format : mappers.keySet()) {
+                if (candidate.includes(format)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] gunzip(byte[] body) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private record CachedResponse(byte[] body, boolean gzip, String etag, long lastModified) {
+    }
+    
+    /**
+     * Variantes de um recurso; imutável, para que o peso calculado na inserção continue válido
+     */
+    private static final class Variants {
+        
+        private static final Variants EMPTY = new Variants(Map.of());
+        
+        private final Map<String, CachedResponse> byKey;
+        private final int weight;
+        
+        private Variants(Map<String, CachedResponse> byKey) {
+            this.byKey = byKey;
+            long total = 0;
+            for (Map.Entry<String, CachedResponse> entry : byKey.entrySet()) {
+                total += entry.getKey().length() * 2L + entry.getValue().body.length + VARIANT_OVERHEAD;
+            }
+            this.weight = (int) Math.min(total, Integer.MAX_VALUE);
+        }
+        
+        private CachedResponse get(String key) {
+            return byKey.get(key);
+        }
+        
+        private Variants with(String key, CachedResponse response) {
+            Map<String, CachedResponse> copy = new HashMap<>(byKey);
+            copy.put(key, response);
+            return new Variants(copy);
+        }
+    }
+}
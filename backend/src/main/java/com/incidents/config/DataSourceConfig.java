@@ -0,0 +1,112 @@
+package com.incidents.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+    
+    /**
+     * Decora o pool do Hikari configurado pelo Spring Boot: roteamento de leituras para as
+     * réplicas (quando configuradas) e limitador de concorrência, ativo por padrão junto
+     * com as threads virtuais
+     */
+    @Bean
+    public static BeanPostProcessor dataSourcePostProcessor(Environment environment,
+                                                            ObjectProvider<ReadYourWrites> readYourWrites) {
+        return new DataSourceDecorator(environment, readYourWrites);
+    }
+    
+    /**
+     * Os pools das réplicas não são beans: são fechados aqui no encerramento do contexto,
+     * depois dos beans que usam o DataSource
+     */
+    private static final class DataSourceDecorator implements BeanPostProcessor, DisposableBean {
+        
+        private final Environment environment;
+        private final ObjectProvider<ReadYourWrites> readYourWrites;
+        private final List<HikariDataSource> replicaPools = new ArrayList<>();
+        
+        DataSourceDecorator(Environment environment, ObjectProvider<ReadYourWrites> readYourWrites) {
+            this.environment = environment;
+            this.readYourWrites = readYourWrites;
+        }
+        
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            List<HikariDataSource> replicas = replicaPools(hikari, environment);
+            replicaPools.addAll(replicas);
+            DataSource dataSource = hikari;
+            if (!replicas.isEmpty()) {
+                Duration retryInterval = environment.getProperty("incidents.datasource.replica-retry-interval",
+                        Duration.class, Duration.ofSeconds(30));
+                dataSource = new ReadReplicaRoutingDataSource(hikari, replicas,
+                        () -> readYourWrites.getObject().requiresPrimary(), retryInterval);
+            }
+            
+            if (environment.getProperty("incidents.datasource.limiter.enabled", Boolean.class, false)) {
+                // Sem valor explícito, uma permissão por conexão dos pools (padrão do Hikari: 10 por pool)
+                int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : 10;
+                int maxConcurrency = environment.getProperty("incidents.datasource.limiter.max-concurrency",
+                        Integer.class, poolSize * (1 + replicas.size()));
+                Duration acquireTimeout = environment.getProperty("incidents.datasource.limiter.acquire-timeout",
+                        Duration.class, Duration.ofSeconds(30));
+                dataSource = new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+            
+            if (!replicas.isEmpty()) {
+                // Conexão obtida no primeiro comando, quando a transação já está marcada como somente leitura
+                LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(dataSource);
+                lazy.setDefaultAutoCommit(hikari.isAutoCommit());
+                lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                dataSource = lazy;
+            }
+            return dataSource;
+        }
+        
+        @Override
+        public void destroy() {
+            replicaPools.forEach(HikariDataSource::close);
+        }
+    }
+    
+    /**
+     * Um pool por URL em incidents.datasource.replicas, com as mesmas credenciais e
+     * configurações do primário; iniciados apenas na primeira leitura
+     */
+    private static List<HikariDataSource> replicaPools(HikariDataSource primary, Environment environment) {
+        String[] urls = environment.getProperty("incidents.datasource.replicas", String[].class, new String[0]);
+        Duration connectionTimeout = environment.getProperty("incidents.datasource.replica-connection-timeout",
+                Duration.class, Duration.ofSeconds(2));
+        
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : Arrays.stream(urls).map(String::trim).filter(url -> !url.isEmpty()).toList()) {
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(url);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            // Réplica indisponível cai rápido para o primário
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return replicas;
+    }
+}
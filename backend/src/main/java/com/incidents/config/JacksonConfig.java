@@ -0,0 +1,40 @@
+package com.incidents.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serialização das respostas. Além do JSON, os controllers negociam CBOR e Smile pelo
+ * header Accept, com a mesma configuração do ObjectMapper do Spring Boot (datas ISO,
+ * módulos registrados). Os conversores substituem os padrões do Spring MVC, que usariam
+ * um ObjectMapper sem essa configuração.
+ */
+@Configuration
+public class JacksonConfig {
+    
+    /**
+     * Getters e construtores chamados por lambdas geradas (LambdaMetafactory) em vez de
+     * reflexão; registrado em todos os ObjectMappers criados pelo Spring Boot
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
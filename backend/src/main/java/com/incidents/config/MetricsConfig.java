@@ -0,0 +1,82 @@
+package com.incidents.config;
+
+import com.incidents.cache.ResponseCache;
+import com.incidents.service.CommentWriteBehindService;
+import com.incidents.stream.IncidentEventBroadcaster;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Métricas próprias da aplicação. Latência HTTP, caches do Spring, pool do Hikari e
+ * estatísticas do Hibernate são publicados pela autoconfiguração do Actuator.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public MeterBinder incidentsMeterBinder(
+            DataSource dataSource,
+            ResponseCache responseCache,
+            IncidentEventBroadcaster broadcaster,
+            CommentWriteBehindService commentWriteBehindService
+    ) {
+        return registry -> {
+            // Registrado no CacheManager depois da autoconfiguração das métricas de cache
+            CaffeineCacheMetrics.monitor(registry, responseCache.getNativeCache(), ResponseCache.CACHE_NAME,
+                    "cache.manager", "cacheManager", "name", ResponseCache.CACHE_NAME);
+            Gauge.builder("incidents.response_cache.bytes", responseCache, ResponseCache::getWeightedSize)
+                    .description("Bytes ocupados pelas respostas serializadas em cache")
+                    .baseUnit("bytes")
+                    .register(registry);
+            
+            Gauge.builder("incidents.stream.subscribers", broadcaster, IncidentEventBroadcaster::getSubscriberCount)
+                    .description("Assinantes SSE conectados")
+                    .register(registry);
+            
+            if (commentWriteBehindService.isEnabled()) {
+                Gauge.builder("incidents.comments.write_behind.queue", commentWriteBehindService, CommentWriteBehindService::getQueueSize)
+                        .description("Comentários aguardando gravação em lote")
+                        .register(registry);
+            }
+            
+            ConcurrencyLimitingDataSource limiter = find(dataSource, ConcurrencyLimitingDataSource.class);
+            if (limiter != null) {
+                Gauge.builder("incidents.datasource.limiter.waiting", limiter, ConcurrencyLimitingDataSource::getQueueLength)
+                        .description("Threads aguardando permissão para obter conexão")
+                        .register(registry);
+                Gauge.builder("incidents.datasource.limiter.available", limiter, ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .description("Permissões livres no limitador de conexões")
+                        .register(registry);
+            }
+            
+            // Pools das réplicas ficam fora do DataSource principal visto pelo Actuator
+            ReadReplicaRoutingDataSource routing = find(dataSource, ReadReplicaRoutingDataSource.class);
+            if (routing != null) {
+                for (HikariDataSource replica : routing.getReplicas()) {
+                    if (replica.getHikariPoolMXBean() == null) {
+                        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                    }
+                }
+            }
+        };
+    }
+    
+    private static <T extends DataSource> T find(DataSource dataSource, Class<T> type) {
+        DataSource current = dataSource;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            current = current instanceof DelegatingDataSource delegating ? delegating.getTargetDataSource() : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.incidents.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Handler que não altera dados apesar do método HTTP (consultas por POST, login): para o
+ * {@link ReadYourWrites}, não é escrita, então as leituras podem ir às réplicas e o usuário
+ * não passa a ler do primário
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyOperation {
+}
@@ -0,0 +1,103 @@
+package com.incidents.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Envia transações somente leitura às réplicas (rodízio) e todo o resto ao primário.
+ * Réplica que falha ao entregar conexão sai do rodízio por {@code retryInterval}; sem
+ * réplica disponível, a leitura vai ao primário. Deve ficar atrás de um
+ * LazyConnectionDataSourceProxy, para que a conexão seja obtida só depois que a
+ * transação já foi marcada como somente leitura.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+    
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final BooleanSupplier requiresPrimary;
+    private final long retryIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReadReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                        BooleanSupplier requiresPrimary, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.requiresPrimary = requiresPrimary;
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !requiresPrimary.getAsBoolean()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+    
+    public List<HikariDataSource> getReplicas() {
+        return replicas.stream().map(replica -> replica.dataSource).toList();
+    }
+    
+    // Permite ao Actuator chegar ao pool do primário (métricas e health)
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+    
+    private Connection replicaConnection() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                // Inclui falha na inicialização do pool (réplica inacessível)
+                replica.unavailableUntil = System.nanoTime() + retryIntervalNanos;
+            }
+        }
+        return null;
+    }
+    
+    private static final class Replica {
+        
+        private final HikariDataSource dataSource;
+        private volatile long unavailableUntil = System.nanoTime();
+        
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+        
+        private boolean isAvailable() {
+            return System.nanoTime() - unavailableUntil >= 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.incidents.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas com réplicas: durante requisições de escrita todas as
+ * consultas vão ao primário (inclusive a leitura que precede um update), e o usuário
+ * que escreveu continua lendo do primário por {@code replica-max-lag}. É escrita todo
+ * método HTTP que não seja GET, HEAD ou OPTIONS, exceto handlers com {@link ReadOnlyOperation}.
+ */
+@Component
+public class ReadYourWrites implements HandlerInterceptor {
+    
+    private static final ThreadLocal<Boolean> WRITING = new ThreadLocal<>();
+    
+    private final Cache<String, Boolean> recentWriters;
+    
+    public ReadYourWrites(@Value("${incidents.datasource.replica-max-lag:5s}") Duration replicaMaxLag) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(replicaMaxLag)
+                .build();
+    }
+    
+    public boolean requiresPrimary() {
+        if (Boolean.TRUE.equals(WRITING.get())) {
+            return true;
+        }
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isWrite(request, handler)) {
+            WRITING.set(Boolean.TRUE);
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (isWrite(request, handler)) {
+            WRITING.remove();
+            String user = currentUser();
+            if (user != null) {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        }
+    }
+    
+    private static boolean isWrite(HttpServletRequest request, Object handler) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return false;
+        }
+        return !(handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(ReadOnlyOperation.class));
+    }
+    
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
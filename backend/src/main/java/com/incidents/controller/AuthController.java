@@ -1,8 +1,10 @@
 package com.incidents.controller;
 
+import com.incidents.config.ReadOnlyOperation;
 import com.incidents.dto.AuthRequest;
 import com.incidents.dto.AuthResponse;
 import com.incidents.security.JwtService;
+import com.incidents.security.UserVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,13 +26,17 @@ public class AuthController {
     
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final UserVersionService userVersionService;
     
-    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService) {
+    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService,
+                          UserVersionService userVersionService) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.userVersionService = userVersionService;
     }
     
     @PostMapping("/login")
+    @ReadOnlyOperation
     @Operation(summary = "Realizar login", description = "Autentica o usuário e retorna um token JWT")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
         Authentication authentication = authenticationManager.authenticate(
@@ -37,8 +44,20 @@ public class AuthController {
         );
         
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtService.generateToken(userDetails);
+        // Versão lida do usuário (não do cache) para o token nascer válido após uma mudança de perfil
+        userVersionService.evict(userDetails.getUsername());
+        long userVersion = userVersionService.currentVersion(userDetails.getUsername()).orElse(0L);
+        String token = jwtService.generateToken(userDetails, userVersion);
         
         return ResponseEntity.ok(new AuthResponse(token));
     }
+    
+    @PostMapping("/stream-token")
+    @ReadOnlyOperation
+    @Operation(summary = "Token do stream", description = "Emite um token de curta duração para GET /incidents/stream?access_token=..., já que o EventSource do navegador não envia o cabeçalho Authorization; o token não vale em nenhum outro endpoint")
+    public ResponseEntity<AuthResponse> streamToken(@AuthenticationPrincipal UserDetails user) {
+        // Mesma versão do token de origem: uma mudança de perfil revoga os dois
+        long userVersion = userVersionService.currentVersion(user.getUsername()).orElse(0L);
+        return ResponseEntity.ok(new AuthResponse(jwtService.generateStreamToken(user, userVersion)));
+    }
 }
@@ -1,19 +1,39 @@
 package com.incidents.controller;
 
+import com.incidents.cache.ResponseCache;
+import com.incidents.dto.BatchResult;
 import com.incidents.dto.CommentRequest;
+import com.incidents.dto.CursorPage;
+import com.incidents.event.CommentChangedEvent;
 import com.incidents.model.Comment;
 import com.incidents.repository.CommentRepository;
+import com.incidents.service.BatchImportService;
+import com.incidents.service.CommentQueryService;
+import com.incidents.service.CommentWriteBehindService;
+import com.incidents.util.ETags;
+import com.incidents.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/comments")
@@ -21,21 +41,69 @@ import java.util.UUID;
 public class CommentController {
     
     private final CommentRepository commentRepository;
+    private final CommentQueryService commentQueryService;
+    private final BatchImportService batchImportService;
+    private final CommentWriteBehindService commentWriteBehindService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResponseCache responseCache;
     
-    public CommentController(CommentRepository commentRepository) {
+    public CommentController(CommentRepository commentRepository, CommentQueryService commentQueryService,
+                             BatchImportService batchImportService, CommentWriteBehindService commentWriteBehindService,
+                             ApplicationEventPublisher eventPublisher, ResponseCache responseCache) {
         this.commentRepository = commentRepository;
+        this.commentQueryService = commentQueryService;
+        this.batchImportService = batchImportService;
+        this.commentWriteBehindService = commentWriteBehindService;
+        this.eventPublisher = eventPublisher;
+        this.responseCache = responseCache;
     }
     
     @GetMapping("/incident/{incidentId}")
-    @Cacheable(value = "commentsByIncident", key = "#incidentId")
-    @Operation(summary = "Listar comentários por incidente", description = "Retorna comentários de um incidente específico")
-    public ResponseEntity<List<Comment>> getCommentsByIncident(@PathVariable UUID incidentId) {
-        List<Comment> comments = commentRepository.findByIncidentIdOrderByDataCriacaoDesc(incidentId);
-        return ResponseEntity.ok(comments);
+    @Operation(summary = "Listar comentários por incidente", description = "Retorna comentários de um incidente específico; responde 304 quando o If-None-Match corresponde à versão atual")
+    public ResponseEntity<?> getCommentsByIncident(@PathVariable UUID incidentId, WebRequest request,
+                                                   HttpServletRequest servletRequest) {
+        // Requisição condicional: compara quantidade e criação mais recente, sem carregar os comentários
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = commentQueryService.currentETag(incidentId);
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        
+        return responseCache.respond(servletRequest, ResponseCache.commentsKey(incidentId), "all", () -> {
+            List<Comment> comments = commentQueryService.findByIncident(incidentId);
+            return ResponseEntity.ok()
+                    .eTag(ETags.comments(incidentId, comments))
+                    .body(comments);
+        });
+    }
+    
+    @GetMapping(value = "/incident/{incidentId}", params = "cursor")
+    @Operation(summary = "Listar comentários por cursor", description = "Retorna comentários do incidente (mais recentes primeiro) a partir de um cursor opaco; envie cursor vazio para a primeira página")
+    public ResponseEntity<?> getCommentsByIncidentCursor(
+            @PathVariable UUID incidentId,
+            @Parameter(description = "Cursor retornado em 'next' pela página anterior") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página (máximo 100)") @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest request) {
+        
+        KeysetCursor position;
+        try {
+            position = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        int pageSize = Math.max(1, Math.min(size, CommentQueryService.MAX_PAGE_SIZE));
+        // Páginas guardadas como variantes da lista do incidente: qualquer alteração remove todas
+        String variant = "cursor_" + position.encode() + "_" + pageSize;
+        return responseCache.respond(request, ResponseCache.commentsKey(incidentId), variant, () -> {
+            List<Comment> comments = commentQueryService.findBefore(incidentId, position, pageSize + 1);
+            return ResponseEntity.ok(CursorPage.fromLookahead(comments, pageSize,
+                    comment -> new KeysetCursor(comment.getDataCriacao(), comment.getId())));
+        });
     }
     
     @PostMapping
-    @CacheEvict(value = {"commentsByIncident", "incidentById"}, allEntries = true)
     @Operation(summary = "Criar comentário", description = "Cria um novo comentário")
     public ResponseEntity<Comment> createComment(@Valid @RequestBody CommentRequest request) {
         Comment comment = new Comment();
@@ -43,18 +111,58 @@ public class CommentController {
         comment.setAutor(request.getAutor());
         comment.setMensagem(request.getMensagem());
         
+        if (commentWriteBehindService.isEnabled()) {
+            return createCommentWriteBehind(comment);
+        }
+        
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(CommentChangedEvent.created(savedComment));
         return ResponseEntity.status(HttpStatus.CREATED).body(savedComment);
     }
     
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Importar comentários em lote", description = "Importa um array JSON ou NDJSON de comentários lido incrementalmente; linhas inválidas são reportadas sem interromper a importação")
+    public ResponseEntity<BatchResult> importComments(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(batchImportService.importComments(request.getInputStream()));
+    }
+    
     @DeleteMapping("/{id}")
-    @CacheEvict(value = {"commentsByIncident", "incidentById"}, allEntries = true)
     @Operation(summary = "Excluir comentário", description = "Exclui um comentário pelo ID")
     public ResponseEntity<Void> deleteComment(@PathVariable UUID id) {
-        if (commentRepository.existsById(id)) {
-            commentRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
+        // Carrega o comentário para invalidar apenas a lista do seu incidente
+        return commentRepository.findById(id)
+                .map(comment -> {
+                    commentRepository.delete(comment);
+                    eventPublisher.publishEvent(CommentChangedEvent.deleted(comment));
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Enfileira o comentário e aguarda o commit do lote: 201 após a gravação, 503 com fila
+     * cheia, 202 se a confirmação não chegar a tempo (o comentário segue na fila)
+     */
+    private ResponseEntity<Comment> createCommentWriteBehind(Comment comment) {
+        comment.setId(UUID.randomUUID());
+        Optional<CompletableFuture<Comment>> ack = commentWriteBehindService.submit(comment);
+        if (ack.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        
+        try {
+            Comment savedComment = ack.get().get(commentWriteBehindService.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedComment);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(comment);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(comment);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntityNotFoundException) {
+                return ResponseEntity.notFound().build();
+            }
+            throw new IllegalStateException("Falha ao gravar o comentário", e.getCause());
         }
-        return ResponseEntity.notFound().build();
     }
 }
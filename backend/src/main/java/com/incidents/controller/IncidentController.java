@@ -1,24 +1,53 @@
 package com.incidents.controller;
 
+import com.incidents.cache.IncidentCacheGenerations;
+import com.incidents.cache.ResponseCache;
+import com.incidents.config.ReadOnlyOperation;
+import com.incidents.dto.BatchResult;
+import com.incidents.dto.CountMode;
+import com.incidents.dto.CursorPage;
+import com.incidents.dto.IncidentFields;
+import com.incidents.dto.IncidentFilter;
+import com.incidents.dto.IncidentLookupRequest;
 import com.incidents.dto.IncidentRequest;
+import com.incidents.event.IncidentChangedEvent;
 import com.incidents.model.Incident;
 import com.incidents.model.enums.Prioridade;
 import com.incidents.model.enums.Status;
 import com.incidents.repository.IncidentRepository;
+import com.incidents.service.BatchImportService;
+import com.incidents.service.IncidentExportService;
+import com.incidents.service.IncidentQueryService;
+import com.incidents.stream.IncidentEventBroadcaster;
+import com.incidents.util.ETags;
 import com.incidents.util.IncidentUtils;
+import com.incidents.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -26,50 +55,144 @@ import java.util.UUID;
 @Tag(name = "Incidentes", description = "Endpoints para gestão de incidentes")
 public class IncidentController {
     
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    
     private final IncidentRepository incidentRepository;
+    private final IncidentQueryService incidentQueryService;
+    private final BatchImportService batchImportService;
+    private final IncidentExportService incidentExportService;
+    private final IncidentEventBroadcaster incidentEventBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResponseCache responseCache;
+    private final IncidentCacheGenerations incidentCacheGenerations;
     
-    public IncidentController(IncidentRepository incidentRepository) {
+    public IncidentController(IncidentRepository incidentRepository, IncidentQueryService incidentQueryService,
+                              BatchImportService batchImportService, IncidentExportService incidentExportService,
+                              IncidentEventBroadcaster incidentEventBroadcaster, ApplicationEventPublisher eventPublisher,
+                              ResponseCache responseCache, IncidentCacheGenerations incidentCacheGenerations) {
         this.incidentRepository = incidentRepository;
+        this.incidentQueryService = incidentQueryService;
+        this.batchImportService = batchImportService;
+        this.incidentExportService = incidentExportService;
+        this.incidentEventBroadcaster = incidentEventBroadcaster;
+        this.eventPublisher = eventPublisher;
+        this.responseCache = responseCache;
+        this.incidentCacheGenerations = incidentCacheGenerations;
     }
     
     @GetMapping
-    @Cacheable(value = "incidents", key = "#status + '_' + #prioridade + '_' + #q + '_' + #pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort")
-    @Operation(summary = "Listar incidentes", description = "Retorna uma lista paginada de incidentes com filtros opcionais")
-    public ResponseEntity<Page<Incident>> listIncidents(
+    @Operation(summary = "Listar incidentes", description = "Retorna uma lista paginada de incidentes com filtros combináveis e apenas os campos pedidos em 'fields' (por padrão, todos exceto a descrição); a contagem total pode ser exata (EXACT), omitida (NONE) ou estimada (APPROX)")
+    public ResponseEntity<?> listIncidents(
             @Parameter(description = "Status do incidente") @RequestParam(required = false) Status status,
             @Parameter(description = "Prioridade do incidente") @RequestParam(required = false) Prioridade prioridade,
             @Parameter(description = "Termo de busca") @RequestParam(required = false) String q,
-            @Parameter(description = "Parâmetros de paginação") Pageable pageable) {
+            @Parameter(description = "Tags (qualquer uma)") @RequestParam(required = false) List<String> tags,
+            @Parameter(description = "Email do responsável") @RequestParam(required = false) String responsavel,
+            @Parameter(description = "Campos retornados, separados por vírgula (id sempre incluído)") @RequestParam(required = false) List<String> fields,
+            @Parameter(description = "Modo de contagem total") @RequestParam(defaultValue = "EXACT") CountMode count,
+            @Parameter(description = "Parâmetros de paginação") Pageable pageable,
+            HttpServletRequest request) {
         
-        Page<Incident> incidents;
-        String searchTerm = IncidentUtils.buildSearchFilter(q);
+        IncidentFields selected;
+        try {
+            selected = IncidentFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        if (status != null && prioridade != null) {
-            incidents = incidentRepository.findByStatusAndPrioridade(status, prioridade, pageable);
-        } else if (status != null) {
-            incidents = incidentRepository.findByStatus(status, pageable);
-        } else if (prioridade != null) {
-            incidents = incidentRepository.findByPrioridade(prioridade, pageable);
-        } else if (searchTerm != null) {
-            incidents = incidentRepository.findByTituloOrDescricaoContaining(searchTerm, pageable);
-        } else {
-            incidents = incidentRepository.findAll(pageable);
+        IncidentFilter filter = new IncidentFilter(status, prioridade, q, tags, responsavel);
+        String resource = "incidents_" + incidentCacheGenerations.listKey(filter) + "_" + selected.cacheKey() + "_" + count
+                + "_" + pageable.getPageNumber() + "_" + pageable.getPageSize() + "_" + pageable.getSort();
+        return responseCache.respond(request, resource, "", () -> {
+            Slice<Map<String, Object>> page = incidentQueryService.list(filter, selected, pageable, count);
+            return withLastModified(page.getContent()).body(page);
+        });
+    }
+    
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar incidentes por cursor", description = "Retorna incidentes ordenados por data de abertura (mais recentes primeiro) a partir de um cursor opaco; envie cursor vazio para a primeira página; 'fields' como na listagem paginada")
+    public ResponseEntity<?> listIncidentsByCursor(
+            @Parameter(description = "Status do incidente") @RequestParam(required = false) Status status,
+            @Parameter(description = "Prioridade do incidente") @RequestParam(required = false) Prioridade prioridade,
+            @Parameter(description = "Termo de busca") @RequestParam(required = false) String q,
+            @Parameter(description = "Tags (qualquer uma)") @RequestParam(required = false) List<String> tags,
+            @Parameter(description = "Email do responsável") @RequestParam(required = false) String responsavel,
+            @Parameter(description = "Campos retornados, separados por vírgula (id sempre incluído)") @RequestParam(required = false) List<String> fields,
+            @Parameter(description = "Cursor retornado em 'next' pela página anterior") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página (máximo 100)") @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest request) {
+        
+        KeysetCursor position;
+        IncidentFields selected;
+        try {
+            position = KeysetCursor.decode(cursor);
+            selected = IncidentFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
         
-        return ResponseEntity.ok(incidents);
+        IncidentFilter filter = new IncidentFilter(status, prioridade, q, tags, responsavel);
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        String resource = "incidents_cursor_" + incidentCacheGenerations.listKey(filter) + "_" + selected.cacheKey()
+                + "_" + position.encode() + "_" + pageSize;
+        return responseCache.respond(request, resource, "", () -> {
+            CursorPage<Map<String, Object>> page = incidentQueryService.listByCursor(filter, selected, position, pageSize);
+            return withLastModified(page.getContent()).body(page);
+        });
     }
     
-    @GetMapping("/{id}")
-    @Cacheable(value = "incidentById", key = "#id")
-    @Operation(summary = "Buscar incidente por ID", description = "Retorna um incidente específico pelo ID")
-    public ResponseEntity<Incident> getIncident(@PathVariable UUID id) {
-        return incidentRepository.findById(id)
+    @GetMapping("/export")
+    @Operation(summary = "Exportar incidentes", description = "Transmite todos os incidentes que atendem aos filtros em NDJSON ou CSV, lidos por cursor no servidor")
+    public ResponseEntity<StreamingResponseBody> exportIncidents(
+            @Parameter(description = "Status do incidente") @RequestParam(required = false) Status status,
+            @Parameter(description = "Prioridade do incidente") @RequestParam(required = false) Prioridade prioridade,
+            @Parameter(description = "Termo de busca") @RequestParam(required = false) String q,
+            @Parameter(description = "Tags (qualquer uma)") @RequestParam(required = false) List<String> tags,
+            @Parameter(description = "Email do responsável") @RequestParam(required = false) String responsavel,
+            @Parameter(description = "Formato de saída") @RequestParam(defaultValue = "NDJSON") IncidentExportService.Format format) {
+        
+        IncidentFilter filter = new IncidentFilter(status, prioridade, q, tags, responsavel);
+        boolean csv = format == IncidentExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"incidents." + (csv ? "csv" : "ndjson") + "\"")
+                .body(out -> incidentExportService.export(filter, format, out));
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream de alterações", description = "Server-Sent Events com criação, atualização, mudança de status e exclusão de incidentes e com comentários novos; eventos pendentes do mesmo incidente são coalescidos e 'resync' indica descarte")
+    public ResponseEntity<SseEmitter> streamChanges() {
+        return incidentEventBroadcaster.subscribe()
                 .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar incidente por ID", description = "Retorna um incidente específico pelo ID; responde 304 quando o If-None-Match corresponde à versão atual")
+    public ResponseEntity<?> getIncident(@PathVariable UUID id, WebRequest request, HttpServletRequest servletRequest) {
+        // Requisição condicional: compara apenas dataAtualizacao, sem carregar nem serializar a entidade
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> etag = incidentQueryService.currentETag(id);
+            if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
+        
+        return responseCache.respond(servletRequest, ResponseCache.incidentKey(id), "", () -> incidentQueryService.findById(id)
+                .<ResponseEntity<?>>map(incident -> ResponseEntity.ok()
+                        .eTag(ETags.incident(incident.getId(), incident.getDataAtualizacao()))
+                        .body(incident))
+                .orElse(ResponseEntity.notFound().build()));
+    }
+    
+    @PostMapping("/lookup")
+    @ReadOnlyOperation
+    @Operation(summary = "Buscar vários incidentes por ID", description = "Retorna até 100 incidentes na ordem dos IDs informados, omitindo os inexistentes; os que não estão em cache são carregados em uma única consulta")
+    public ResponseEntity<List<Incident>> lookupIncidents(@Valid @RequestBody IncidentLookupRequest request) {
+        return ResponseEntity.ok(incidentQueryService.findAllById(request.getIds()));
     }
     
     @PostMapping
-    @CacheEvict(value = {"incidents", "stats"}, allEntries = true)
     @Operation(summary = "Criar incidente", description = "Cria um novo incidente")
     public ResponseEntity<Incident> createIncident(@Valid @RequestBody IncidentRequest request) {
         Incident incident = new Incident();
@@ -83,15 +206,23 @@ public class IncidentController {
         incident.setDataAtualizacao(LocalDateTime.now());
         
         Incident savedIncident = incidentRepository.save(incident);
+        eventPublisher.publishEvent(IncidentChangedEvent.created(savedIncident));
         return ResponseEntity.status(HttpStatus.CREATED).body(savedIncident);
     }
     
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Importar incidentes em lote", description = "Importa um array JSON ou NDJSON de incidentes lido incrementalmente; linhas inválidas são reportadas sem interromper a importação")
+    public ResponseEntity<BatchResult> importIncidents(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(batchImportService.importIncidents(request.getInputStream()));
+    }
+    
     @PutMapping("/{id}")
-    @CacheEvict(value = {"incidents", "incidentById", "stats"}, allEntries = true)
     @Operation(summary = "Atualizar incidente", description = "Atualiza um incidente existente")
     public ResponseEntity<Incident> updateIncident(@PathVariable UUID id, @Valid @RequestBody IncidentRequest request) {
-        return incidentRepository.findById(id)
+        return incidentRepository.findWithTagsById(id)
                 .map(incident -> {
+                    Status previousStatus = incident.getStatus();
+                    Prioridade previousPrioridade = incident.getPrioridade();
                     incident.setTitulo(request.getTitulo());
                     incident.setDescricao(request.getDescricao());
                     incident.setPrioridade(request.getPrioridade());
@@ -101,34 +232,50 @@ public class IncidentController {
                     IncidentUtils.touchUpdate(incident);
                     
                     Incident updatedIncident = incidentRepository.save(incident);
+                    eventPublisher.publishEvent(IncidentChangedEvent.updated(previousStatus, previousPrioridade, updatedIncident));
                     return ResponseEntity.ok(updatedIncident);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
-    @CacheEvict(value = {"incidents", "incidentById", "stats"}, allEntries = true)
     @Operation(summary = "Excluir incidente", description = "Exclui um incidente pelo ID")
     public ResponseEntity<Void> deleteIncident(@PathVariable UUID id) {
-        if (incidentRepository.existsById(id)) {
-            incidentRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        // Carrega o incidente para informar status e prioridade removidos aos contadores
+        return incidentRepository.findById(id)
+                .map(incident -> {
+                    incidentRepository.delete(incident);
+                    eventPublisher.publishEvent(IncidentChangedEvent.deleted(incident));
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @PatchMapping("/{id}/status")
-    @CacheEvict(value = {"incidents", "incidentById", "stats"}, allEntries = true)
     @Operation(summary = "Atualizar status", description = "Atualiza apenas o status de um incidente")
     public ResponseEntity<Incident> updateStatus(@PathVariable UUID id, @RequestParam Status status) {
-        return incidentRepository.findById(id)
+        // Tags carregadas junto: a resposta é serializada fora da transação
+        return incidentRepository.findWithTagsById(id)
                 .map(incident -> {
+                    Status previousStatus = incident.getStatus();
                     incident.setStatus(status);
                     IncidentUtils.touchUpdate(incident);
                     
                     Incident updatedIncident = incidentRepository.save(incident);
+                    eventPublisher.publishEvent(IncidentChangedEvent.updated(previousStatus, updatedIncident.getPrioridade(), updatedIncident));
                     return ResponseEntity.ok(updatedIncident);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    // Last-Modified da página: maior dataAtualizacao entre os itens retornados (quando o campo foi pedido)
+    private static ResponseEntity.BodyBuilder withLastModified(List<Map<String, Object>> rows) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        rows.stream()
+                .map(row -> (LocalDateTime) row.get("dataAtualizacao"))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .ifPresent(lastModified -> builder.lastModified(lastModified.atZone(ZoneId.systemDefault())));
+        return builder;
+    }
 }
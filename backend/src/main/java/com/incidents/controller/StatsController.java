@@ -1,17 +1,19 @@
 package com.incidents.controller;
 
-import com.incidents.model.enums.Prioridade;
-import com.incidents.model.enums.Status;
-import com.incidents.repository.IncidentRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.incidents.service.IncidentStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -19,36 +21,41 @@ import java.util.Map;
 @Tag(name = "Estatísticas", description = "Endpoints para estatísticas dos incidentes")
 public class StatsController {
     
-    private final IncidentRepository incidentRepository;
+    private final IncidentStatsService incidentStatsService;
+    private final CacheManager cacheManager;
     
-    public StatsController(IncidentRepository incidentRepository) {
-        this.incidentRepository = incidentRepository;
+    public StatsController(IncidentStatsService incidentStatsService, CacheManager cacheManager) {
+        this.incidentStatsService = incidentStatsService;
+        this.cacheManager = cacheManager;
     }
     
     @GetMapping("/incidents")
-    @Cacheable(value = "stats", key = "'incidentStats'")
-    @Operation(summary = "Estatísticas dos incidentes", description = "Retorna contadores por status e prioridade")
-    public ResponseEntity<Map<String, Object>> getIncidentStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Contagem total
-        stats.put("total", incidentRepository.countTotal());
-        
-        // Contagem por status
-        stats.put("porStatus", Map.of(
-            "ABERTA", incidentRepository.countByStatus(Status.ABERTA),
-            "EM_ANDAMENTO", incidentRepository.countByStatus(Status.EM_ANDAMENTO),
-            "RESOLVIDA", incidentRepository.countByStatus(Status.RESOLVIDA),
-            "CANCELADA", incidentRepository.countByStatus(Status.CANCELADA)
-        ));
-        
-        // Contagem por prioridade
-        stats.put("porPrioridade", Map.of(
-            "BAIXA", incidentRepository.countByPrioridade(Prioridade.BAIXA),
-            "MEDIA", incidentRepository.countByPrioridade(Prioridade.MEDIA),
-            "ALTA", incidentRepository.countByPrioridade(Prioridade.ALTA)
-        ));
-        
-        return ResponseEntity.ok(stats);
+    @Operation(summary = "Estatísticas dos incidentes", description = "Retorna contadores por status e prioridade mantidos em memória e reconciliados periodicamente com o banco; responde 304 quando o If-None-Match corresponde à versão atual")
+    public ResponseEntity<Map<String, Object>> getIncidentStats(WebRequest request) {
+        // ETag lido antes do snapshot (ver IncidentStatsService.currentETag)
+        String etag = incidentStatsService.currentETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(incidentStatsService.getSnapshot());
+    }
+    
+    @GetMapping("/cache")
+    @Operation(summary = "Estatísticas dos caches", description = "Retorna acertos, falhas e taxa de acerto de cada cache da aplicação")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> cacheStats = new LinkedHashMap<>();
+                cacheStats.put("size", caffeineCache.getNativeCache().estimatedSize());
+                cacheStats.put("hitCount", stats.hitCount());
+                cacheStats.put("missCount", stats.missCount());
+                cacheStats.put("hitRate", stats.hitRate());
+                cacheStats.put("evictionCount", stats.evictionCount());
+                caches.put(name, cacheStats);
+            }
+        }
+        return ResponseEntity.ok(caches);
     }
 }
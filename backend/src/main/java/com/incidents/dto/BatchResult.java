@@ -0,0 +1,89 @@
+package com.incidents.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote; erros por linha limitados a {@code maxErrors}
+ */
+public class BatchResult {
+    
+    private final int maxErrors;
+    private long total;
+    private long inserted;
+    private long failed;
+    private boolean aborted;
+    private final List<RowError> errors = new ArrayList<>();
+    
+    public BatchResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+    
+    public void rowRead() {
+        total++;
+    }
+    
+    public void rowsInserted(int count) {
+        inserted += count;
+    }
+    
+    public void rowFailed(long index, List<String> messages) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(index, messages));
+        }
+    }
+    
+    // Corpo malformado: linhas seguintes não podem ser lidas
+    public void abort(long index, String message) {
+        aborted = true;
+        rowFailed(index, List.of(message));
+    }
+    
+    // Getters
+    public long getTotal() {
+        return total;
+    }
+    
+    public long getInserted() {
+        return inserted;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public boolean isAborted() {
+        return aborted;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    /**
+     * Erros de uma linha do corpo (índice a partir de zero)
+     */
+    public static class RowError {
+        
+        private final long index;
+        private final List<String> messages;
+        
+        public RowError(long index, List<String> messages) {
+            this.index = index;
+            this.messages = messages;
+        }
+        
+        public long getIndex() {
+            return index;
+        }
+        
+        public List<String> getMessages() {
+            return messages;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.incidents.dto;
+
+/**
+ * Estratégia de contagem total na listagem paginada
+ */
+public enum CountMode {
+    // Page com COUNT(*) exato sobre o mesmo predicado
+    EXACT,
+    // Slice sem contagem: busca size + 1 linhas para saber se há próxima página
+    NONE,
+    // Page com total estimado (estatísticas do Postgres ou contagem em cache)
+    APPROX
+}
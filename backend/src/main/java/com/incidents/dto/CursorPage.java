@@ -0,0 +1,63 @@
+package com.incidents.dto;
+
+import com.incidents.util.KeysetCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados paginada por cursor; {@code next} é nulo na última página
+ */
+public class CursorPage<T> {
+    
+    private List<T> content;
+    private int size;
+    private String next;
+    
+    public CursorPage(List<T> content, int size, String next) {
+        this.content = content;
+        this.size = size;
+        this.next = next;
+    }
+    
+    /**
+     * Monta a página a partir de até size + 1 itens; o item extra indica que existe próxima página
+     */
+    public static <T> CursorPage<T> fromLookahead(List<T> items, int size, Function<T, KeysetCursor> position) {
+        if (items.size() <= size) {
+            return new CursorPage<>(items, size, null);
+        }
+        List<T> content = new ArrayList<>(items.subList(0, size));
+        return new CursorPage<>(content, size, position.apply(content.get(size - 1)).encode());
+    }
+    
+    // Getters e Setters
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public String getNext() {
+        return next;
+    }
+    
+    public void setNext(String next) {
+        this.next = next;
+    }
+    
+    public boolean isHasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.incidents.dto;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Campos de incidente devolvidos pelas listagens (parâmetro {@code fields}), traduzidos
+ * na lista do SELECT. O id é sempre incluído; sem o parâmetro, todos os campos exceto
+ * a descrição. Mantidos na ordem declarada do incidente, independente do pedido.
+ */
+public final class IncidentFields {
+    
+    public static final List<String> ALL = List.of(
+            "id", "titulo", "descricao", "prioridade", "status", "responsavelEmail", "tags", "dataAbertura", "dataAtualizacao");
+    
+    public static final IncidentFields LIST_DEFAULT = new IncidentFields(
+            ALL.stream().filter(name -> !name.equals("descricao")).toList());
+    
+    private final List<String> names;
+    
+    private IncidentFields(List<String> names) {
+        this.names = names;
+    }
+    
+    /**
+     * Campos pedidos pelo cliente; nulo ou vazio resulta em LIST_DEFAULT
+     *
+     * @throws IllegalArgumentException se algum campo não existe
+     */
+    public static IncidentFields parse(List<String> requested) {
+        if (requested == null || requested.stream().allMatch(String::isBlank)) {
+            return LIST_DEFAULT;
+        }
+        Set<String> wanted = new HashSet<>();
+        for (String name : requested) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(trimmed)) {
+                throw new IllegalArgumentException("Campo desconhecido: " + trimmed);
+            }
+            wanted.add(trimmed);
+        }
+        wanted.add("id");
+        return new IncidentFields(ALL.stream().filter(wanted::contains).toList());
+    }
+    
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+    
+    public List<String> getNames() {
+        return names;
+    }
+    
+    /**
+     * Campos lidos diretamente da tabela incident (sem as tags, de outra tabela),
+     * acrescidos dos campos extras exigidos pela consulta
+     */
+    public List<String> columns(String... required) {
+        List<String> columns = new ArrayList<>(names);
+        columns.remove("tags");
+        for (String name : required) {
+            if (!columns.contains(name)) {
+                columns.add(name);
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * Chave estável para cache: pedidos equivalentes geram a mesma chave
+     */
+    public String cacheKey() {
+        return String.join(",", names);
+    }
+}
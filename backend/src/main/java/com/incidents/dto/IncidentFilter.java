@@ -0,0 +1,76 @@
+package com.incidents.dto;
+
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.util.IncidentUtils;
+
+import java.util.List;
+
+/**
+ * Filtros combináveis da listagem de incidentes, já normalizados
+ */
+public class IncidentFilter {
+    
+    private final Status status;
+    private final Prioridade prioridade;
+    private final String termo;
+    private final List<String> tags;
+    private final String responsavelEmail;
+    
+    public IncidentFilter(Status status, Prioridade prioridade, String q, List<String> tags, String responsavelEmail) {
+        this.status = status;
+        this.prioridade = prioridade;
+        this.termo = IncidentUtils.buildSearchFilter(q);
+        this.tags = IncidentUtils.normalizeTags(tags);
+        this.responsavelEmail = responsavelEmail == null || responsavelEmail.isBlank() ? null : responsavelEmail.trim();
+    }
+    
+    public boolean isEmpty() {
+        return status == null && prioridade == null && termo == null && tags.isEmpty() && responsavelEmail == null;
+    }
+    
+    /**
+     * Chave estável para cache: filtros equivalentes geram a mesma chave. Cada parte leva o
+     * próprio tamanho à frente (nula como "-"), então valores com separadores não colidem e
+     * a chave pode ser seguida de outras partes.
+     */
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder();
+        appendPart(key, status == null ? null : status.name());
+        appendPart(key, prioridade == null ? null : prioridade.name());
+        appendPart(key, termo);
+        key.append(tags.size()).append('#');
+        tags.forEach(tag -> appendPart(key, tag));
+        appendPart(key, responsavelEmail);
+        return key.toString();
+    }
+    
+    private static void appendPart(StringBuilder key, String value) {
+        if (value == null) {
+            key.append('-');
+        } else {
+            key.append(value.length()).append(':').append(value);
+        }
+    }
+    
+    // Getters
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Prioridade getPrioridade() {
+        return prioridade;
+    }
+    
+    public String getTermo() {
+        return termo;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public String getResponsavelEmail() {
+        return responsavelEmail;
+    }
+}
@@ -0,0 +1,24 @@
+package com.incidents.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class IncidentLookupRequest {
+    
+    @NotEmpty(message = "Informe ao menos um ID")
+    @Size(max = 100, message = "Máximo de 100 IDs por consulta")
+    private List<@NotNull(message = "ID não pode ser nulo") UUID> ids;
+    
+    // Getters e Setters
+    public List<UUID> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
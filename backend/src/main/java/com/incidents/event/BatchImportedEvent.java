@@ -0,0 +1,49 @@
+package com.incidents.event;
+
+import java.util.List;
+
+/**
+ * Incidentes ou comentários criados por um mesmo bloco da importação em lote, publicados
+ * juntos após o commit: caches e contadores são atualizados uma vez por bloco, e não por
+ * linha. Os eventos individuais seguem disponíveis para quem notifica item a item (SSE,
+ * retransmissão entre instâncias).
+ */
+public class BatchImportedEvent {
+    
+    private final List<IncidentChangedEvent> incidents;
+    private final List<CommentChangedEvent> comments;
+    private final boolean remote;
+    
+    private BatchImportedEvent(List<IncidentChangedEvent> incidents, List<CommentChangedEvent> comments, boolean remote) {
+        this.incidents = incidents;
+        this.comments = comments;
+        this.remote = remote;
+    }
+    
+    public static BatchImportedEvent ofIncidents(List<IncidentChangedEvent> incidents) {
+        return new BatchImportedEvent(List.copyOf(incidents), List.of(), false);
+    }
+    
+    public static BatchImportedEvent ofComments(List<CommentChangedEvent> comments) {
+        return new BatchImportedEvent(List.of(), List.copyOf(comments), false);
+    }
+    
+    public BatchImportedEvent asRemote() {
+        return new BatchImportedEvent(
+                incidents.stream().map(IncidentChangedEvent::asRemote).toList(),
+                comments.stream().map(CommentChangedEvent::asRemote).toList(),
+                true);
+    }
+    
+    public List<IncidentChangedEvent> getIncidents() {
+        return incidents;
+    }
+    
+    public List<CommentChangedEvent> getComments() {
+        return comments;
+    }
+    
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,55 @@
+package com.incidents.event;
+
+import com.incidents.model.Comment;
+
+import java.util.UUID;
+
+/**
+ * Criação ou exclusão de um comentário já persistida; remoto quando veio de outra instância
+ */
+public class CommentChangedEvent {
+    
+    private final UUID commentId;
+    private final UUID incidentId;
+    private final boolean deleted;
+    private final boolean remote;
+    
+    public CommentChangedEvent(UUID commentId, UUID incidentId, boolean deleted) {
+        this(commentId, incidentId, deleted, false);
+    }
+    
+    private CommentChangedEvent(UUID commentId, UUID incidentId, boolean deleted, boolean remote) {
+        this.commentId = commentId;
+        this.incidentId = incidentId;
+        this.deleted = deleted;
+        this.remote = remote;
+    }
+    
+    public static CommentChangedEvent created(Comment comment) {
+        return new CommentChangedEvent(comment.getId(), comment.getIncidentId(), false);
+    }
+    
+    public static CommentChangedEvent deleted(Comment comment) {
+        return new CommentChangedEvent(comment.getId(), comment.getIncidentId(), true);
+    }
+    
+    public CommentChangedEvent asRemote() {
+        return new CommentChangedEvent(commentId, incidentId, deleted, true);
+    }
+    
+    public UUID getCommentId() {
+        return commentId;
+    }
+    
+    public UUID getIncidentId() {
+        return incidentId;
+    }
+    
+    public boolean isDeleted() {
+        return deleted;
+    }
+    
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,91 @@
+package com.incidents.event;
+
+import com.incidents.model.Incident;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+
+import java.util.UUID;
+
+/**
+ * Alteração de um incidente já persistida. Estado anterior nulo indica criação;
+ * estado atual nulo indica exclusão; arquivamento mantém o mesmo estado antes e depois
+ * (o incidente continua legível e contado, mas sai das listagens). Eventos remotos vieram de outra instância
+ * (PostgresEventRelay) e não são retransmitidos.
+ */
+public class IncidentChangedEvent {
+    
+    private final UUID incidentId;
+    private final Status previousStatus;
+    private final Prioridade previousPrioridade;
+    private final Status status;
+    private final Prioridade prioridade;
+    private final boolean remote;
+    
+    public IncidentChangedEvent(UUID incidentId, Status previousStatus, Prioridade previousPrioridade,
+                                Status status, Prioridade prioridade) {
+        this(incidentId, previousStatus, previousPrioridade, status, prioridade, false);
+    }
+    
+    private IncidentChangedEvent(UUID incidentId, Status previousStatus, Prioridade previousPrioridade,
+                                 Status status, Prioridade prioridade, boolean remote) {
+        this.incidentId = incidentId;
+        this.previousStatus = previousStatus;
+        this.previousPrioridade = previousPrioridade;
+        this.status = status;
+        this.prioridade = prioridade;
+        this.remote = remote;
+    }
+    
+    public static IncidentChangedEvent created(Incident incident) {
+        return new IncidentChangedEvent(incident.getId(), null, null, incident.getStatus(), incident.getPrioridade());
+    }
+    
+    public static IncidentChangedEvent updated(Status previousStatus, Prioridade previousPrioridade, Incident incident) {
+        return new IncidentChangedEvent(incident.getId(), previousStatus, previousPrioridade,
+                incident.getStatus(), incident.getPrioridade());
+    }
+    
+    public static IncidentChangedEvent deleted(Incident incident) {
+        return new IncidentChangedEvent(incident.getId(), incident.getStatus(), incident.getPrioridade(), null, null);
+    }
+    
+    public static IncidentChangedEvent archived(UUID incidentId, Status status, Prioridade prioridade) {
+        return new IncidentChangedEvent(incidentId, status, prioridade, status, prioridade);
+    }
+    
+    public IncidentChangedEvent asRemote() {
+        return new IncidentChangedEvent(incidentId, previousStatus, previousPrioridade, status, prioridade, true);
+    }
+    
+    public boolean isCreated() {
+        return previousStatus == null;
+    }
+    
+    public boolean isDeleted() {
+        return status == null;
+    }
+    
+    public UUID getIncidentId() {
+        return incidentId;
+    }
+    
+    public Status getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public Prioridade getPreviousPrioridade() {
+        return previousPrioridade;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Prioridade getPrioridade() {
+        return prioridade;
+    }
+    
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,324 @@
+package com.incidents.event;
+
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.service.IncidentStatsService;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Retransmite as alterações confirmadas entre as instâncias via LISTEN/NOTIFY do Postgres.
+ * Eventos locais são enviados em lote por uma thread própria; os recebidos de outras
+ * instâncias são republicados aqui como remotos, e assim invalidam o cache, atualizam os
+ * contadores e chegam aos assinantes SSE desta instância. Notificações que falham voltam
+ * à fila e são reenviadas com espera crescente. A escuta usa uma conexão dedicada, fora
+ * do pool; ao reconectar, os caches locais são limpos e os contadores recalculados, pois
+ * notificações podem ter sido perdidas.
+ */
+@Component
+@ConditionalOnProperty(name = "incidents.cluster.notify.enabled", havingValue = "true")
+public class PostgresEventRelay {
+    
+    private static final Logger log = LoggerFactory.getLogger(PostgresEventRelay.class);
+    
+    // Limite do Postgres é 8000 bytes por notificação
+    private static final int MAX_PAYLOAD_LENGTH = 7500;
+    private static final String NONE = "-";
+    private static final long MIN_RETRY_DELAY_MILLIS = 100;
+    
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final IncidentStatsService statsService;
+    private final String channel;
+    private final int pollMillis;
+    private final long reconnectDelayMillis;
+    
+    private volatile boolean running;
+    private Thread sender;
+    private Thread listener;
+    
+    public PostgresEventRelay(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ApplicationEventPublisher eventPublisher,
+            CacheManager cacheManager,
+            IncidentStatsService statsService,
+            @Value("${incidents.cluster.notify.channel:incidents_changes}") String channel,
+            @Value("${incidents.cluster.notify.poll-interval:500ms}") Duration pollInterval,
+            @Value("${incidents.cluster.notify.reconnect-delay:5s}") Duration reconnectDelay
+    ) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Canal de notificação inválido: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.statsService = statsService;
+        this.channel = channel;
+        this.pollMillis = (int) pollInterval.toMillis();
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        running = true;
+        listener = new Thread(this::listen, "cluster-notify-listener");
+        listener.setDaemon(true);
+        listener.start();
+        sender = new Thread(this::send, "cluster-notify-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : new Thread[]{sender, listener}) {
+            if (thread != null) {
+                thread.interrupt();
+                thread.join(reconnectDelayMillis);
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        if (!event.isRemote()) {
+            outbox.add(line(event));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (!event.isRemote()) {
+            outbox.add(line(event));
+        }
+    }
+    
+    // Enviado item a item; quem recebe reagrupa as criações consecutivas (ver receive)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatchImported(BatchImportedEvent event) {
+        if (!event.isRemote()) {
+            event.getIncidents().forEach(incident -> outbox.add(line(incident)));
+            event.getComments().forEach(comment -> outbox.add(line(comment)));
+        }
+    }
+    
+    /**
+     * Envia os eventos pendentes; os que não puderam ser enviados continuam à frente da fila
+     * e são reenviados após uma espera que dobra a cada falha, até reconnect-delay
+     */
+    private void send() {
+        List<String> pending = new ArrayList<>();
+        long retryDelayMillis = 0;
+        while (running) {
+            try {
+                if (retryDelayMillis > 0) {
+                    Thread.sleep(retryDelayMillis);
+                } else {
+                    pending.add(outbox.take());
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            outbox.drainTo(pending);
+            
+            int sent = sendAll(pending);
+            pending.subList(0, sent).clear();
+            if (pending.isEmpty()) {
+                retryDelayMillis = 0;
+            } else {
+                retryDelayMillis = Math.min(Math.max(retryDelayMillis * 2, MIN_RETRY_DELAY_MILLIS), reconnectDelayMillis);
+                log.warn("{} notificações de alteração pendentes, nova tentativa em {} ms", pending.size(), retryDelayMillis);
+            }
+        }
+    }
+    
+    /**
+     * Agrupa os eventos em notificações de até MAX_PAYLOAD_LENGTH caracteres (primeira linha
+     * com a instância de origem, uma linha por evento) e para na primeira falha.
+     * Retorna quantos eventos, do início da lista, foram enviados.
+     */
+    private int sendAll(List<String> lines) {
+        StringBuilder payload = new StringBuilder(nodeId);
+        int sent = 0;
+        int batched = 0;
+        for (String line : lines) {
+            if (batched > 0 && payload.length() + line.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                if (!notify(payload.toString())) {
+                    return sent;
+                }
+                sent += batched;
+                batched = 0;
+                payload.setLength(0);
+                payload.append(nodeId);
+            }
+            payload.append('\n').append(line);
+            batched++;
+        }
+        return notify(payload.toString()) ? sent + batched : sent;
+    }
+    
+    private boolean notify(String payload) {
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao enviar notificação de alterações: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    resync();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Escuta de alterações interrompida, nova tentativa em {} ms: {}", reconnectDelayMillis, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void receive(String payload) {
+        String[] lines = payload.split("\n");
+        if (lines[0].equals(nodeId)) {
+            return;
+        }
+        // Criações consecutivas (importação em lote) são republicadas juntas, na ordem recebida
+        List<IncidentChangedEvent> createdIncidents = new ArrayList<>();
+        List<CommentChangedEvent> createdComments = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(";");
+            try {
+                if ("I".equals(fields[0])) {
+                    IncidentChangedEvent event = new IncidentChangedEvent(UUID.fromString(fields[1]),
+                            status(fields[2]), prioridade(fields[3]), status(fields[4]), prioridade(fields[5]));
+                    publishCreated(createdComments, BatchImportedEvent::ofComments);
+                    if (event.isCreated()) {
+                        createdIncidents.add(event);
+                    } else {
+                        publishCreated(createdIncidents, BatchImportedEvent::ofIncidents);
+                        eventPublisher.publishEvent(event.asRemote());
+                    }
+                } else if ("C".equals(fields[0])) {
+                    CommentChangedEvent event = new CommentChangedEvent(UUID.fromString(fields[1]),
+                            UUID.fromString(fields[2]), "1".equals(fields[3]));
+                    publishCreated(createdIncidents, BatchImportedEvent::ofIncidents);
+                    if (event.isDeleted()) {
+                        publishCreated(createdComments, BatchImportedEvent::ofComments);
+                        eventPublisher.publishEvent(event.asRemote());
+                    } else {
+                        createdComments.add(event);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Notificação de alteração ignorada ({}): {}", lines[i], e.getMessage());
+            }
+        }
+        publishCreated(createdIncidents, BatchImportedEvent::ofIncidents);
+        publishCreated(createdComments, BatchImportedEvent::ofComments);
+    }
+    
+    // Itens recém-criados não têm entradas próprias no cache: o lote equivale aos eventos individuais
+    private <T> void publishCreated(List<T> created, Function<List<T>, BatchImportedEvent> batch) {
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(batch.apply(created).asRemote());
+            created.clear();
+        }
+    }
+    
+    /**
+     * Após reconectar: notificações podem ter se perdido durante a queda, então os caches
+     * locais são descartados e os contadores, recalculados do banco
+     */
+    private void resync() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        // Falhas são registradas pelo próprio serviço; a reconciliação periódica tenta de novo
+        statsService.reconcile();
+        log.info("Escuta de alterações restabelecida; caches locais limpos e estatísticas recalculadas");
+    }
+    
+    private static String line(IncidentChangedEvent event) {
+        return String.join(";", "I", event.getIncidentId().toString(),
+                name(event.getPreviousStatus()), name(event.getPreviousPrioridade()),
+                name(event.getStatus()), name(event.getPrioridade()));
+    }
+    
+    private static String line(CommentChangedEvent event) {
+        return String.join(";", "C", event.getCommentId().toString(),
+                event.getIncidentId().toString(), event.isDeleted() ? "1" : "0");
+    }
+    
+    private static String name(Enum<?> value) {
+        return value == null ? NONE : value.name();
+    }
+    
+    private static Status status(String value) {
+        return NONE.equals(value) ? null : Status.valueOf(value);
+    }
+    
+    private static Prioridade prioridade(String value) {
+        return NONE.equals(value) ? null : Prioridade.valueOf(value);
+    }
+}
@@ -4,6 +4,7 @@ import com.incidents.model.enums.Prioridade;
 import com.incidents.model.enums.Status;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,7 +42,10 @@ public class Incident {
     @Column(name = "responsavel_email", nullable = false)
     private String responsavelEmail;
     
+    // Listagens leem as tags numa consulta IN explícita (IncidentRepositoryImpl) e o detalhe pelo
+    // entity graph; o @BatchSize atende a exportação, que inicializa as tags em blocos de 100
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "incident_tags", joinColumns = @JoinColumn(name = "incident_id"))
     @Column(name = "tag")
     private List<String> tags;
@@ -0,0 +1,101 @@
+package com.incidents.repository;
+
+import com.incidents.model.Comment;
+import com.incidents.model.Incident;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Inserções em lote via JDBC (batch reescrito em INSERT multi-valores pelo driver),
+ * sem passar pelo contexto de persistência do JPA
+ */
+@Repository
+public class BulkInsertRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public BulkInsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Insere incidentes com IDs já atribuídos e suas tags
+     */
+    public void insertIncidents(List<Incident> incidents) {
+        if (incidents.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO incident (id, titulo, descricao, prioridade, status, responsavel_email, data_abertura, data_atualizacao) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                incidents,
+                incidents.size(),
+                (ps, incident) -> {
+                    ps.setObject(1, incident.getId());
+                    ps.setString(2, incident.getTitulo());
+                    ps.setString(3, incident.getDescricao());
+                    ps.setString(4, incident.getPrioridade().name());
+                    ps.setString(5, incident.getStatus().name());
+                    ps.setString(6, incident.getResponsavelEmail());
+                    ps.setTimestamp(7, Timestamp.valueOf(incident.getDataAbertura()));
+                    ps.setTimestamp(8, Timestamp.valueOf(incident.getDataAtualizacao()));
+                });
+        
+        List<Object[]> tags = new ArrayList<>();
+        for (Incident incident : incidents) {
+            for (String tag : incident.getTags()) {
+                tags.add(new Object[]{incident.getId(), tag});
+            }
+        }
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO incident_tags (incident_id, tag) VALUES (?, ?)", tags);
+        }
+    }
+    
+    /**
+     * Insere comentários com IDs já atribuídos
+     */
+    public void insertComments(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO comment (id, incident_id, autor, mensagem, data_criacao) VALUES (?, ?, ?, ?, ?)",
+                comments,
+                comments.size(),
+                (ps, comment) -> {
+                    ps.setObject(1, comment.getId());
+                    ps.setObject(2, comment.getIncidentId());
+                    ps.setString(3, comment.getAutor());
+                    ps.setString(4, comment.getMensagem());
+                    ps.setTimestamp(5, Timestamp.valueOf(comment.getDataCriacao()));
+                });
+    }
+    
+    /**
+     * IDs do conjunto informado que existem na tabela incident. As linhas ficam travadas
+     * com FOR KEY SHARE até o fim da transação: o incidente não pode ser excluído (nem
+     * arquivado) entre esta verificação e o INSERT dos filhos, mas continua atualizável.
+     */
+    public Set<UUID> findExistingIncidentIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement("SELECT id FROM incident WHERE id = ANY (?) FOR KEY SHARE");
+                    ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+}
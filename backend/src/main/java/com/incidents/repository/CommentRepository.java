@@ -1,11 +1,15 @@
 package com.incidents.repository;
 
 import com.incidents.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +22,23 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
     // Buscar comentários por incidente (sem paginação)
     List<Comment> findByIncidentIdOrderByDataCriacaoDesc(UUID incidentId);
     
+    // Comentários anteriores à posição (dataCriacao, id), mais recentes primeiro; o limite
+    // dataCriacao <= :data permite a busca pelo índice composto (incident_id, data_criacao, id)
+    @Query("SELECT c FROM Comment c WHERE c.incidentId = :incidentId AND c.dataCriacao <= :data " +
+           "AND (c.dataCriacao < :data OR c.id < :id) ORDER BY c.dataCriacao DESC, c.id DESC")
+    List<Comment> findKeyset(@Param("incidentId") UUID incidentId, @Param("data") LocalDateTime data,
+                             @Param("id") UUID id, Limit limit);
+    
     // Contar comentários por incidente
     long countByIncidentId(UUID incidentId);
+    
+    // Versão da lista de comentários de um incidente (para ETag)
+    @Query("SELECT COUNT(c) AS total, MAX(c.dataCriacao) AS ultimaCriacao FROM Comment c WHERE c.incidentId = :incidentId")
+    CommentsVersion findVersionByIncidentId(@Param("incidentId") UUID incidentId);
+    
+    interface CommentsVersion {
+        long getTotal();
+        
+        LocalDateTime getUltimaCriacao();
+    }
 }
@@ -0,0 +1,205 @@
+package com.incidents.repository;
+
+import com.incidents.model.Comment;
+import com.incidents.model.Incident;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tabelas de arquivo (V8) via JDBC: movimentação de incidentes encerrados, cujos métodos
+ * devem rodar dentro da transação do bloco sendo arquivado, e leituras usadas quando o
+ * incidente não está mais nas tabelas ativas. Incidentes arquivados são somente leitura.
+ */
+@Repository
+public class IncidentArchiveRepository {
+    
+    private static final RowMapper<Comment> COMMENT_ROW_MAPPER = (rs, rowNum) -> {
+        Comment comment = new Comment();
+        comment.setId(rs.getObject(1, UUID.class));
+        comment.setIncidentId(rs.getObject(2, UUID.class));
+        comment.setAutor(rs.getString(3));
+        comment.setMensagem(rs.getString(4));
+        comment.setDataCriacao(rs.getTimestamp(5).toLocalDateTime());
+        return comment;
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public IncidentArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Advisory lock da transação atual; falso quando outra instância está arquivando
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('incident_archive'))", Boolean.class));
+    }
+    
+    /**
+     * Espera máxima por locks na transação atual (SET LOCAL lock_timeout)
+     */
+    public void setLockTimeout(Duration timeout) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                timeout.toMillis() + "ms");
+    }
+    
+    /**
+     * Bloqueia até {@code limit} incidentes encerrados sem alteração desde {@code before}.
+     * Linhas bloqueadas por outras transações (edições, comentários em andamento) são puladas.
+     */
+    public List<UUID> lockClosedBefore(LocalDateTime before, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM incident WHERE status IN ('RESOLVIDA', 'CANCELADA') AND data_atualizacao < ? "
+                        + "ORDER BY data_atualizacao LIMIT ? FOR UPDATE SKIP LOCKED",
+                UUID.class, Timestamp.valueOf(before), limit);
+    }
+    
+    /**
+     * Copia incidentes, tags e comentários para o arquivo e os remove das tabelas ativas
+     * (comentários e tags pela cascata). Retorna id, status e prioridade dos removidos.
+     */
+    public List<Object[]> moveToArchive(List<UUID> ids) {
+        UUID[] idArray = ids.toArray(UUID[]::new);
+        jdbcTemplate.query(withIds(
+                "SELECT incident_archive_create_partitions(ano) FROM "
+                        + "(SELECT DISTINCT extract(year FROM data_abertura)::int AS ano FROM incident WHERE id = ANY (?)) anos",
+                idArray), rs -> {});
+        jdbcTemplate.update(withIds(
+                "INSERT INTO incident_tags_archive (incident_id, incident_data_abertura, tag) "
+                        + "SELECT t.incident_id, i.data_abertura, t.tag FROM incident_tags t "
+                        + "JOIN incident i ON i.id = t.incident_id WHERE t.incident_id = ANY (?)",
+                idArray));
+        jdbcTemplate.update(withIds(
+                "INSERT INTO comment_archive (id, incident_id, incident_data_abertura, autor, mensagem, data_criacao) "
+                        + "SELECT c.id, c.incident_id, i.data_abertura, c.autor, c.mensagem, c.data_criacao FROM comment c "
+                        + "JOIN incident i ON i.id = c.incident_id WHERE c.incident_id = ANY (?)",
+                idArray));
+        return jdbcTemplate.query(withIds(
+                "WITH removidos AS (DELETE FROM incident WHERE id = ANY (?) RETURNING *), "
+                        + "arquivados AS (INSERT INTO incident_archive (id, titulo, descricao, prioridade, status, "
+                        + "responsavel_email, data_abertura, data_atualizacao, data_arquivamento) "
+                        + "SELECT id, titulo, descricao, prioridade, status, responsavel_email, data_abertura, "
+                        + "data_atualizacao, localtimestamp FROM removidos) "
+                        + "SELECT id, status, prioridade FROM removidos",
+                idArray),
+                (rs, rowNum) -> new Object[]{
+                        rs.getObject(1, UUID.class),
+                        Status.valueOf(rs.getString(2)),
+                        Prioridade.valueOf(rs.getString(3))
+                });
+    }
+    
+    public Optional<Incident> findIncident(UUID id) {
+        return findIncidents(List.of(id)).stream().findFirst();
+    }
+    
+    /**
+     * Incidentes arquivados com as tags, em duas consultas (sem a data de abertura, a busca
+     * passa pelo índice da chave primária de cada partição)
+     */
+    public List<Incident> findIncidents(Collection<UUID> ids) {
+        UUID[] idArray = ids.toArray(UUID[]::new);
+        Map<UUID, Incident> incidents = new LinkedHashMap<>();
+        jdbcTemplate.query(withIds(
+                "SELECT id, titulo, descricao, prioridade, status, responsavel_email, data_abertura, data_atualizacao "
+                        + "FROM incident_archive WHERE id = ANY (?)",
+                idArray), rs -> {
+            Incident incident = new Incident();
+            incident.setId(rs.getObject(1, UUID.class));
+            incident.setTitulo(rs.getString(2));
+            incident.setDescricao(rs.getString(3));
+            incident.setPrioridade(Prioridade.valueOf(rs.getString(4)));
+            incident.setStatus(Status.valueOf(rs.getString(5)));
+            incident.setResponsavelEmail(rs.getString(6));
+            incident.setDataAbertura(rs.getTimestamp(7).toLocalDateTime());
+            incident.setDataAtualizacao(rs.getTimestamp(8).toLocalDateTime());
+            incident.setTags(new ArrayList<>());
+            incidents.put(incident.getId(), incident);
+        });
+        if (!incidents.isEmpty()) {
+            jdbcTemplate.query(withIds(
+                    "SELECT incident_id, tag FROM incident_tags_archive WHERE incident_id = ANY (?) ORDER BY tag",
+                    incidents.keySet().toArray(UUID[]::new)),
+                    rs -> {
+                        incidents.get(rs.getObject(1, UUID.class)).getTags().add(rs.getString(2));
+                    });
+        }
+        return new ArrayList<>(incidents.values());
+    }
+    
+    public Optional<LocalDateTime> findDataAtualizacao(UUID id) {
+        return jdbcTemplate.queryForList("SELECT data_atualizacao FROM incident_archive WHERE id = ?",
+                LocalDateTime.class, id).stream().findFirst();
+    }
+    
+    /**
+     * Comentários arquivados do incidente, mais recentes primeiro (mesma ordem das tabelas ativas)
+     */
+    public List<Comment> findComments(UUID incidentId) {
+        return jdbcTemplate.query(
+                "SELECT id, incident_id, autor, mensagem, data_criacao FROM comment_archive "
+                        + "WHERE incident_id = ? ORDER BY data_criacao DESC, id DESC",
+                COMMENT_ROW_MAPPER, incidentId);
+    }
+    
+    /**
+     * Até limit comentários arquivados anteriores à posição (dataCriacao, id)
+     */
+    public List<Comment> findCommentsBefore(UUID incidentId, LocalDateTime data, UUID id, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, incident_id, autor, mensagem, data_criacao FROM comment_archive "
+                        + "WHERE incident_id = ? AND (data_criacao, id) < (?, ?) "
+                        + "ORDER BY data_criacao DESC, id DESC LIMIT ?",
+                COMMENT_ROW_MAPPER, incidentId, Timestamp.valueOf(data), id, limit);
+    }
+    
+    /**
+     * Quantidade e criação mais recente dos comentários arquivados, como em
+     * CommentRepository.findVersionByIncidentId
+     */
+    public CommentRepository.CommentsVersion findCommentsVersion(UUID incidentId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), MAX(data_criacao) FROM comment_archive WHERE incident_id = ?",
+                (rs, rowNum) -> {
+                    long total = rs.getLong(1);
+                    Timestamp ultimaCriacao = rs.getTimestamp(2);
+                    return new CommentRepository.CommentsVersion() {
+                        @Override
+                        public long getTotal() {
+                            return total;
+                        }
+                        
+                        @Override
+                        public LocalDateTime getUltimaCriacao() {
+                            return ultimaCriacao == null ? null : ultimaCriacao.toLocalDateTime();
+                        }
+                    };
+                }, incidentId);
+    }
+    
+    private static PreparedStatementCreator withIds(String sql, UUID[] ids) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("uuid", ids));
+            return ps;
+        };
+    }
+}
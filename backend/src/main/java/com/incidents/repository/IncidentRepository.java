@@ -1,43 +1,39 @@
 package com.incidents.repository;
 
 import com.incidents.model.Incident;
-import com.incidents.model.enums.Prioridade;
-import com.incidents.model.enums.Status;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface IncidentRepository extends JpaRepository<Incident, UUID> {
+public interface IncidentRepository extends JpaRepository<Incident, UUID>, JpaSpecificationExecutor<Incident>, IncidentRepositoryCustom {
     
-    // Busca por status
-    Page<Incident> findByStatus(Status status, Pageable pageable);
+    // Filtros de listagem (status, prioridade, responsável, tags e busca textual): ver IncidentSpecifications
     
-    // Busca por prioridade
-    Page<Incident> findByPrioridade(Prioridade prioridade, Pageable pageable);
+    // Detalhe com as tags na mesma consulta
+    @EntityGraph(attributePaths = "tags")
+    Optional<Incident> findWithTagsById(UUID id);
     
-    // Busca por responsável
-    Page<Incident> findByResponsavelEmail(String responsavelEmail, Pageable pageable);
+    // Vários incidentes com as tags em uma única consulta
+    @EntityGraph(attributePaths = "tags")
+    List<Incident> findWithTagsByIdIn(Collection<UUID> ids);
     
-    // Busca por status e prioridade
-    Page<Incident> findByStatusAndPrioridade(Status status, Prioridade prioridade, Pageable pageable);
+    // Versão de um incidente (para ETag), sem carregar a entidade
+    @Query("SELECT i.dataAtualizacao FROM Incident i WHERE i.id = :id")
+    Optional<LocalDateTime> findDataAtualizacaoById(@Param("id") UUID id);
     
-    // Busca por título ou descrição (LIKE)
-    @Query("SELECT i FROM Incident i WHERE LOWER(i.titulo) LIKE LOWER(CONCAT('%', :termo, '%')) OR LOWER(i.descricao) LIKE LOWER(CONCAT('%', :termo, '%'))")
-    Page<Incident> findByTituloOrDescricaoContaining(@Param("termo") String termo, Pageable pageable);
-    
-    // Contagem por status
-    long countByStatus(Status status);
-    
-    // Contagem por prioridade
-    long countByPrioridade(Prioridade prioridade);
-    
-    // Contagem total
-    @Query("SELECT COUNT(i) FROM Incident i")
-    long countTotal();
+    // Contagem por status e prioridade, ativos e arquivados no mesmo snapshot: [status, prioridade, total]
+    @Query(value = "SELECT status, prioridade, COUNT(*) FROM ("
+            + "SELECT status, prioridade FROM incident UNION ALL SELECT status, prioridade FROM incident_archive"
+            + ") t GROUP BY status, prioridade", nativeQuery = true)
+    List<Object[]> countGroupedByStatusAndPrioridade();
 }
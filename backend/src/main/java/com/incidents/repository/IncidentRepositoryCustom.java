@@ -0,0 +1,30 @@
+package com.incidents.repository;
+
+import com.incidents.dto.IncidentFields;
+import com.incidents.model.Incident;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Consultas dinâmicas sem contagem (Slice, keyset e exportação), implementadas com Criteria.
+ * As listagens selecionam apenas os campos pedidos (Tuple), sem carregar entidades.
+ */
+public interface IncidentRepositoryCustom {
+    
+    // Página sem COUNT(*), só com os campos pedidos: busca size + 1 linhas para determinar se há próxima página
+    Slice<Map<String, Object>> findSlice(Specification<Incident> spec, Pageable pageable, IncidentFields fields);
+    
+    // Primeiras linhas em ordem de dataAbertura DESC, id DESC (paginação por cursor); dataAbertura sempre incluída
+    List<Map<String, Object>> findKeyset(Specification<Incident> spec, int limit, IncidentFields fields);
+    
+    // Cursor somente leitura no servidor (fetch size), em ordem de keyset; exige transação ativa
+    Stream<Incident> streamAll(Specification<Incident> spec, int fetchSize);
+    
+    // Total estimado pelas estatísticas do Postgres (negativo se a tabela nunca foi analisada)
+    long estimateTotal();
+}
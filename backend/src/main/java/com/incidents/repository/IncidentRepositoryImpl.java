@@ -0,0 +1,142 @@
+package com.incidents.repository;
+
+import com.incidents.dto.IncidentFields;
+import com.incidents.model.Incident;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class IncidentRepositoryImpl implements IncidentRepositoryCustom {
+    
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("dataAbertura"), Sort.Order.desc("id"));
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Slice<Map<String, Object>> findSlice(Specification<Incident> spec, Pageable pageable, IncidentFields fields) {
+        List<Map<String, Object>> rows = selectFields(spec, pageable.getSort(), fields,
+                (int) pageable.getOffset(), pageable.getPageSize() + 1);
+        
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Map<String, Object>> content = hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+    
+    @Override
+    public List<Map<String, Object>> findKeyset(Specification<Incident> spec, int limit, IncidentFields fields) {
+        return selectFields(spec, KEYSET_ORDER, fields, 0, limit, "dataAbertura");
+    }
+    
+    @Override
+    public Stream<Incident> streamAll(Specification<Incident> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Incident> query = cb.createQuery(Incident.class);
+        Root<Incident> root = query.from(Incident.class);
+        query.select(root);
+        applyFilterAndSort(query, root, spec, KEYSET_ORDER);
+        
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+    
+    @Override
+    public long estimateTotal() {
+        Number estimate = (Number) entityManager
+                .createNativeQuery("SELECT reltuples FROM pg_class WHERE oid = CAST('incident' AS regclass)")
+                .getSingleResult();
+        return estimate.longValue();
+    }
+    
+    /**
+     * Linhas com os campos pedidos, na ordem de IncidentFields, mais os campos
+     * {@code required}. As tags, quando pedidas, vêm de uma segunda consulta com IN.
+     */
+    private List<Map<String, Object>> selectFields(Specification<Incident> spec, Sort sort, IncidentFields fields,
+                                                   int offset, int limit, String... required) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Incident> root = query.from(Incident.class);
+        
+        List<String> columns = fields.columns(required);
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            selections.add(root.get(column).alias(column));
+        }
+        query.multiselect(selections);
+        applyFilterAndSort(query, root, spec, sort);
+        
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        
+        boolean withTags = fields.includes("tags");
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : fields.getNames()) {
+                row.put(name, name.equals("tags") ? new ArrayList<String>() : tuple.get(name));
+            }
+            for (String name : required) {
+                row.putIfAbsent(name, tuple.get(name));
+            }
+            rows.add(row);
+        }
+        if (withTags && !rows.isEmpty()) {
+            loadTags(rows);
+        }
+        return rows;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void loadTags(List<Map<String, Object>> rows) {
+        Map<UUID, List<String>> tagsById = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            tagsById.put((UUID) row.get("id"), (List<String>) row.get("tags"));
+        }
+        List<Object[]> tags = entityManager
+                .createQuery("SELECT i.id, t FROM Incident i JOIN i.tags t WHERE i.id IN :ids", Object[].class)
+                .setParameter("ids", tagsById.keySet())
+                .getResultList();
+        for (Object[] tag : tags) {
+            tagsById.get((UUID) tag[0]).add((String) tag[1]);
+        }
+    }
+    
+    private void applyFilterAndSort(CriteriaQuery<?> query, Root<Incident> root, Specification<Incident> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        
+        // Ordenação explícita prevalece sobre a ordenação por relevância da busca textual
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, cb));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.incidents.repository;
+
+import com.incidents.dto.IncidentFilter;
+import com.incidents.model.Incident;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.util.IncidentUtils;
+import com.incidents.util.KeysetCursor;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Predicados combináveis para consultas dinâmicas de incidentes (uma única instrução SQL)
+ */
+public final class IncidentSpecifications {
+    
+    private IncidentSpecifications() {
+    }
+    
+    public static Specification<Incident> fromFilter(IncidentFilter filter) {
+        return Specification.where(hasStatus(filter.getStatus()))
+                .and(hasPrioridade(filter.getPrioridade()))
+                .and(hasResponsavel(filter.getResponsavelEmail()))
+                .and(hasAnyTag(filter.getTags()))
+                .and(matchesTerm(filter.getTermo()));
+    }
+    
+    public static Specification<Incident> hasStatus(Status status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Incident> hasPrioridade(Prioridade prioridade) {
+        return prioridade == null ? null : (root, query, cb) -> cb.equal(root.get("prioridade"), prioridade);
+    }
+    
+    public static Specification<Incident> hasResponsavel(String responsavelEmail) {
+        return responsavelEmail == null ? null : (root, query, cb) -> cb.equal(root.get("responsavelEmail"), responsavelEmail);
+    }
+    
+    /**
+     * Incidentes com pelo menos uma das tags (EXISTS sobre incident_tags, sem duplicar linhas)
+     */
+    public static Specification<Incident> hasAnyTag(List<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<UUID> subquery = query.subquery(UUID.class);
+            Root<Incident> tagged = subquery.from(Incident.class);
+            Join<Incident, String> tag = tagged.join("tags");
+            subquery.select(tagged.get("id"))
+                    .where(cb.equal(tagged.get("id"), root.get("id")), tag.in(tags));
+            return cb.exists(subquery);
+        };
+    }
+    
+    /**
+     * Busca textual indexada (funções da migration V5). Sem ordenação explícita,
+     * os resultados são ordenados por relevância.
+     */
+    public static Specification<Incident> matchesTerm(String termo) {
+        if (termo == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Expression<Boolean> fullText = cb.function("incident_search_matches", Boolean.class,
+                    root.get("titulo"), root.get("descricao"), cb.literal(termo));
+            Expression<String> titulo = cb.lower(root.get("titulo"));
+            
+            if (query.getResultType() != Long.class && query.getOrderList().isEmpty()) {
+                Expression<Float> rank = cb.function("incident_search_rank", Float.class,
+                        root.get("titulo"), root.get("descricao"), cb.literal(termo));
+                query.orderBy(cb.desc(rank), cb.desc(root.get("dataAbertura")));
+            }
+            return cb.or(cb.isTrue(fullText), cb.like(titulo, IncidentUtils.buildLikePattern(termo), '\\'));
+        };
+    }
+    
+    /**
+     * Posição de keyset: (dataAbertura, id) estritamente anterior ao cursor.
+     * O limite dataAbertura <= cursor permite a busca pelo índice composto.
+     */
+    public static Specification<Incident> before(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            Expression<LocalDateTime> dataAbertura = root.get("dataAbertura");
+            Expression<UUID> id = root.get("id");
+            return cb.and(
+                    cb.lessThanOrEqualTo(dataAbertura, cursor.getData()),
+                    cb.or(
+                            cb.lessThan(dataAbertura, cursor.getData()),
+                            cb.lessThan(id, cursor.getId())
+                    )
+            );
+        };
+    }
+}
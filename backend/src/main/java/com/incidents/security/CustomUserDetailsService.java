@@ -8,10 +8,14 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     
+    // Usuários seed não mudam de perfil
+    private static final long SEED_USER_VERSION = 1L;
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Usuários seed para demonstração
@@ -33,4 +37,15 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         throw new UsernameNotFoundException("Usuário não encontrado: " + username);
     }
+    
+    /**
+     * Versão do usuário, incrementada quando perfis ou credenciais mudam; tokens emitidos
+     * com versão anterior deixam de ser aceitos. Vazio para usuário inexistente.
+     */
+    public Optional<Long> findUserVersion(String username) {
+        if ("admin@incidents.com".equals(username) || "user@incidents.com".equals(username)) {
+            return Optional.of(SEED_USER_VERSION);
+        }
+        return Optional.empty();
+    }
 }
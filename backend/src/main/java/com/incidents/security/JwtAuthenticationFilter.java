@@ -1,5 +1,6 @@
 package com.incidents.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,23 +8,28 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    // O EventSource do navegador não envia cabeçalhos: no stream o token vem na query string
+    public static final String STREAM_PATH = "/incidents/stream";
+    public static final String STREAM_TOKEN_PARAMETER = "access_token";
+    
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserVersionService userVersionService;
     
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserVersionService userVersionService) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.userVersionService = userVersionService;
     }
     
     @Override
@@ -34,21 +40,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         
         final String authHeader = request.getHeader("Authorization");
+        final boolean streamRequest = "GET".equals(request.getMethod()) && STREAM_PATH.equals(request.getServletPath());
+        final boolean fromQuery;
         final String jwt;
         final String userEmail;
         
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            fromQuery = false;
+            jwt = authHeader.substring(7);
+        } else if (streamRequest && request.getParameter(STREAM_TOKEN_PARAMETER) != null) {
+            fromQuery = true;
+            jwt = request.getParameter(STREAM_TOKEN_PARAMETER);
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        // Token verificado uma única vez por requisição
+        Optional<Claims> claims = jwtService.verifyToken(jwt);
+        if (claims.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
         
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        // Token de stream só vale no stream, e na query string só se aceita token de stream
+        // (tokens de 24 h não devem ir parar em logs de acesso e históricos)
+        boolean streamToken = jwtService.isStreamToken(claims.get());
+        if ((streamToken && !streamRequest) || (fromQuery && !streamToken)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        userEmail = claims.get().getSubject();
         
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // Autenticação montada só com os claims verificados, sem carregar o usuário;
+            // a versão (em cache) rejeita tokens emitidos antes de uma mudança de perfil
+            Optional<Long> tokenVersion = jwtService.extractUserVersion(claims.get());
+            if (tokenVersion.isPresent() && userVersionService.isCurrent(userEmail, tokenVersion.get())) {
+                UserDetails userDetails = new User(userEmail, "", jwtService.extractAuthorities(claims.get()));
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
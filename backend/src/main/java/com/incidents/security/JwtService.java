@@ -1,27 +1,86 @@
 package com.incidents.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
-    @Value("${spring.security.jwt.secret}")
-    private String secretKey;
+    // Perfis e versão do usuário na emissão: o filtro autoriza só com os claims
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_VERSION_CLAIM = "uv";
     
-    @Value("${spring.security.jwt.expiration}")
-    private long jwtExpiration;
+    // Tokens de curta duração aceitos apenas no stream SSE (o EventSource não envia cabeçalhos)
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "stream";
+    
+    private final long jwtExpiration;
+    private final long streamTokenExpiration;
+    
+    // Chave e parser construídos uma única vez (imutáveis e thread-safe)
+    private final SecretKey signInKey;
+    private final JwtParser jwtParser;
+    
+    // Claims já verificados, indexados pelo digest do token e válidos até o exp do próprio token
+    // (nulo quando maximum-size = 0, desativando o cache)
+    private final Cache<String, Claims> verifiedClaims;
+    
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+    
+    public JwtService(
+            @Value("${spring.security.jwt.secret}") String secretKey,
+            @Value("${spring.security.jwt.expiration}") long jwtExpiration,
+            @Value("${spring.security.jwt.stream-token-expiration:60000}") long streamTokenExpiration,
+            @Value("${spring.security.jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtExpiration = jwtExpiration;
+        this.streamTokenExpiration = streamTokenExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parser().verifyWith(signInKey).build();
+        this.verifiedClaims = cacheMaximumSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        if (verifiedClaims != null) {
+            // Mesmas chaves de tag dos caches do Spring; o Prometheus exige o mesmo conjunto por métrica
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwtClaims",
+                    "cache.manager", "jwtService", "name", "jwtClaims");
+        }
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+    }
     
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -32,8 +91,46 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    /**
+     * Verifica assinatura e expiração do token com um único parse.
+     * Retorna vazio para tokens inválidos, malformados ou expirados.
+     */
+    public Optional<Claims> verifyToken(String token) {
+        long start = System.nanoTime();
+        Optional<Claims> result;
+        try {
+            Claims claims = extractAllClaims(token);
+            result = isExpired(claims) ? Optional.empty() : Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            result = Optional.empty();
+        }
+        (result.isPresent() ? validTokenTimer : invalidTokenTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+    
+    public String generateToken(UserDetails userDetails, long userVersion) {
+        return generateToken(userClaims(userDetails, userVersion), userDetails);
+    }
+    
+    /**
+     * Token de curta duração para o stream SSE, passado na query string; o filtro o rejeita
+     * em qualquer outro endpoint
+     */
+    public String generateStreamToken(UserDetails userDetails, long userVersion) {
+        Map<String, Object> claims = userClaims(userDetails, userVersion);
+        claims.put(SCOPE_CLAIM, STREAM_SCOPE);
+        return buildToken(claims, userDetails, streamTokenExpiration);
+    }
+    
+    public boolean isStreamToken(Claims claims) {
+        return STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM));
+    }
+    
+    private Map<String, Object> userClaims(UserDetails userDetails, long userVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        claims.put(USER_VERSION_CLAIM, userVersion);
+        return claims;
     }
     
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -51,34 +148,94 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
     
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+    
+    /**
+     * Valida claims já verificados contra o usuário, sem novo parse do token
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username != null && username.equals(userDetails.getUsername())) && !isExpired(claims);
+    }
+    
+    /**
+     * Perfis gravados no token; vazio para tokens emitidos sem o claim
+     */
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        if (!(claims.get(ROLES_CLAIM) instanceof Collection<?> roles)) {
+            return List.of();
+        }
+        return roles.stream().<GrantedAuthority>map(role -> new SimpleGrantedAuthority(String.valueOf(role))).toList();
     }
     
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Optional<Long> extractUserVersion(Claims claims) {
+        return claims.get(USER_VERSION_CLAIM) instanceof Number version ? Optional.of(version.longValue()) : Optional.empty();
     }
     
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.before(new Date());
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (verifiedClaims == null) {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        }
+        final String key = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+    
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("incidents.jwt.verification")
+                .description("Verificação de token JWT por requisição (inclui acertos do cache de claims)")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+    
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
     
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Cada entrada expira no exp do próprio token (tokens sem exp não são mantidos)
+     */
+    private static final class ClaimsExpiry implements Expiry<String, Claims> {
+        
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,46 @@
+package com.incidents.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Versão atual de cada usuário, consultada pelo filtro JWT para revogar tokens emitidos
+ * antes de uma mudança de perfil. Mantida em cache por {@code cache-ttl}, que limita o
+ * atraso da revogação; evict() aplica a mudança imediatamente nesta instância.
+ */
+@Service
+public class UserVersionService {
+    
+    private final LoadingCache<String, Optional<Long>> versions;
+    
+    public UserVersionService(
+            CustomUserDetailsService userDetailsService,
+            @Value("${spring.security.jwt.user-version.cache-ttl:30s}") Duration cacheTtl,
+            @Value("${spring.security.jwt.user-version.maximum-size:10000}") long maximumSize
+    ) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(cacheTtl)
+                .build(userDetailsService::findUserVersion);
+    }
+    
+    public Optional<Long> currentVersion(String username) {
+        return versions.get(username);
+    }
+    
+    /**
+     * Token válido apenas se emitido com a versão atual de um usuário existente
+     */
+    public boolean isCurrent(String username, long tokenVersion) {
+        return currentVersion(username).map(version -> version == tokenVersion).orElse(false);
+    }
+    
+    public void evict(String username) {
+        versions.invalidate(username);
+    }
+}
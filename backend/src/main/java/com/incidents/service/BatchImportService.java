@@ -0,0 +1,297 @@
+package com.incidents.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incidents.dto.BatchResult;
+import com.incidents.dto.CommentRequest;
+import com.incidents.dto.IncidentRequest;
+import com.incidents.event.BatchImportedEvent;
+import com.incidents.event.CommentChangedEvent;
+import com.incidents.event.IncidentChangedEvent;
+import com.incidents.model.Comment;
+import com.incidents.model.Incident;
+import com.incidents.repository.BulkInsertRepository;
+import com.incidents.util.IncidentUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote a partir de um array JSON ou NDJSON lido incrementalmente.
+ * Cada linha é validada; as válidas são gravadas em blocos de {@code chunk-size}
+ * linhas, cada bloco em sua própria transação; se o banco recusar o bloco, as linhas são
+ * regravadas uma a uma e só as problemáticas falham. Caches e contadores são atualizados
+ * uma vez por bloco. A memória usada é limitada a um bloco e aos erros retidos,
+ * independente do tamanho do corpo.
+ */
+@Service
+public class BatchImportService {
+    
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxErrors;
+    
+    public BatchImportService(
+            ObjectMapper objectMapper,
+            Validator validator,
+            BulkInsertRepository bulkInsertRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${incidents.batch.chunk-size:500}") int chunkSize,
+            @Value("${incidents.batch.max-errors:1000}") int maxErrors
+    ) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+    
+    public BatchResult importIncidents(InputStream body) throws IOException {
+        BatchResult result = new BatchResult(maxErrors);
+        Chunk<Incident> chunk = new Chunk<>(chunkSize);
+        
+        read(body, IncidentRequest.class, result, (index, request) -> {
+            chunk.add(index, toIncident(request));
+            if (chunk.isFull()) {
+                flushIncidents(chunk, result);
+            }
+        });
+        flushIncidents(chunk, result);
+        return result;
+    }
+    
+    public BatchResult importComments(InputStream body) throws IOException {
+        BatchResult result = new BatchResult(maxErrors);
+        Chunk<Comment> chunk = new Chunk<>(chunkSize);
+        
+        read(body, CommentRequest.class, result, (index, request) -> {
+            chunk.add(index, toComment(request));
+            if (chunk.isFull()) {
+                flushComments(chunk, result);
+            }
+        });
+        flushComments(chunk, result);
+        return result;
+    }
+    
+    private <T> void read(InputStream body, Class<T> type, BatchResult result, RowHandler<T> handler) throws IOException {
+        // Array na raiz é percorrido elemento a elemento; NDJSON é uma sequência de valores na raiz
+        try (MappingIterator<T> rows = objectMapper.readerFor(type).readValues(body)) {
+            long index = 0;
+            while (true) {
+                T row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        return;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonParseException e) {
+                    result.rowRead();
+                    result.abort(index, "JSON inválido: " + e.getOriginalMessage());
+                    return;
+                } catch (JsonMappingException e) {
+                    // Valor bem formado mas incompatível: o iterador avança para a próxima linha
+                    result.rowRead();
+                    result.rowFailed(index++, List.of(e.getOriginalMessage()));
+                    continue;
+                }
+                
+                result.rowRead();
+                List<String> violations = validate(row);
+                if (violations.isEmpty()) {
+                    handler.accept(index, row);
+                } else {
+                    result.rowFailed(index, violations);
+                }
+                index++;
+            }
+        }
+    }
+    
+    private <T> List<String> validate(T row) {
+        if (row == null) {
+            return List.of("Linha vazia");
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+    
+    private void flushIncidents(Chunk<Incident> chunk, BatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Incident> inserted = write(chunk, result, (rows, indexes, rejected) -> {
+            bulkInsertRepository.insertIncidents(rows);
+            return rows;
+        });
+        result.rowsInserted(inserted.size());
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(BatchImportedEvent.ofIncidents(
+                    inserted.stream().map(IncidentChangedEvent::created).toList()));
+        }
+        chunk.clear();
+    }
+    
+    private void flushComments(Chunk<Comment> chunk, BatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Comment> inserted = write(chunk, result, (rows, indexes, rejected) -> {
+            Set<UUID> existing = bulkInsertRepository.findExistingIncidentIds(
+                    rows.stream().map(Comment::getIncidentId).collect(Collectors.toSet()));
+            
+            List<Comment> valid = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                Comment comment = rows.get(i);
+                if (existing.contains(comment.getIncidentId())) {
+                    valid.add(comment);
+                } else {
+                    rejected.put(indexes.get(i), "Incidente não encontrado");
+                }
+            }
+            bulkInsertRepository.insertComments(valid);
+            return valid;
+        });
+        result.rowsInserted(inserted.size());
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(BatchImportedEvent.ofComments(
+                    inserted.stream().map(CommentChangedEvent::created).toList()));
+        }
+        chunk.clear();
+    }
+    
+    /**
+     * Grava o bloco numa única transação. Se o banco rejeitar o bloco, cada linha é regravada
+     * sozinha, em transação própria, para que só as problemáticas falhem, cada uma com o seu
+     * erro, e as demais sejam gravadas. Retorna as linhas gravadas.
+     */
+    private <T> List<T> write(Chunk<T> chunk, BatchResult result, ChunkWriter<T> writer) {
+        try {
+            return writeInTransaction(chunk.rows, chunk.indexes, result, writer);
+        } catch (DataAccessException e) {
+            if (chunk.rows.size() == 1) {
+                result.rowFailed(chunk.indexes.get(0), List.of(failureMessage(e)));
+                return List.of();
+            }
+        }
+        List<T> written = new ArrayList<>(chunk.rows.size());
+        for (int i = 0; i < chunk.rows.size(); i++) {
+            Long index = chunk.indexes.get(i);
+            try {
+                written.addAll(writeInTransaction(List.of(chunk.rows.get(i)), List.of(index), result, writer));
+            } catch (DataAccessException e) {
+                result.rowFailed(index, List.of(failureMessage(e)));
+            }
+        }
+        return written;
+    }
+    
+    private <T> List<T> writeInTransaction(List<T> rows, List<Long> indexes, BatchResult result, ChunkWriter<T> writer) {
+        // Linhas recusadas pelo writer são registradas só após o commit
+        Map<Long, String> rejected = new LinkedHashMap<>();
+        List<T> written = transactionTemplate.execute(status -> {
+            rejected.clear();
+            return writer.write(rows, indexes, rejected);
+        });
+        rejected.forEach((index, message) -> result.rowFailed(index, List.of(message)));
+        return written;
+    }
+    
+    private static String failureMessage(DataAccessException e) {
+        return "Falha ao gravar a linha: " + e.getMostSpecificCause().getMessage();
+    }
+    
+    private static Incident toIncident(IncidentRequest request) {
+        Incident incident = new Incident();
+        incident.setId(UUID.randomUUID());
+        incident.setTitulo(request.getTitulo());
+        incident.setDescricao(request.getDescricao());
+        incident.setPrioridade(request.getPrioridade());
+        incident.setStatus(request.getStatus());
+        incident.setResponsavelEmail(request.getResponsavelEmail());
+        incident.setTags(IncidentUtils.normalizeTags(request.getTags()));
+        return incident;
+    }
+    
+    private static Comment toComment(CommentRequest request) {
+        Comment comment = new Comment();
+        comment.setId(UUID.randomUUID());
+        comment.setIncidentId(request.getIncidentId());
+        comment.setAutor(request.getAutor());
+        comment.setMensagem(request.getMensagem());
+        return comment;
+    }
+    
+    private interface RowHandler<T> {
+        void accept(long index, T row);
+    }
+    
+    /**
+     * Grava as linhas na transação atual e retorna as gravadas; as recusadas sem erro do banco
+     * são informadas em rejected, com a mensagem de cada índice
+     */
+    private interface ChunkWriter<T> {
+        List<T> write(List<T> rows, List<Long> indexes, Map<Long, String> rejected);
+    }
+    
+    /**
+     * Linhas válidas pendentes de gravação e seus índices no corpo
+     */
+    private static final class Chunk<T> {
+        
+        private final int capacity;
+        private final List<T> rows;
+        private final List<Long> indexes;
+        
+        private Chunk(int capacity) {
+            this.capacity = capacity;
+            this.rows = new ArrayList<>(capacity);
+            this.indexes = new ArrayList<>(capacity);
+        }
+        
+        private void add(long index, T row) {
+            rows.add(row);
+            indexes.add(index);
+        }
+        
+        private boolean isFull() {
+            return rows.size() >= capacity;
+        }
+        
+        private boolean isEmpty() {
+            return rows.isEmpty();
+        }
+        
+        private void clear() {
+            rows.clear();
+            indexes.clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.incidents.service;
+
+import com.incidents.model.Comment;
+import com.incidents.repository.CommentRepository;
+import com.incidents.repository.IncidentArchiveRepository;
+import com.incidents.util.ETags;
+import com.incidents.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leituras de comentários: páginas por cursor, lista completa e versão para requisições
+ * condicionais. As respostas serializadas ficam no ResponseCache. Sem comentários nas
+ * tabelas ativas, a leitura recorre ao arquivo (o arquivamento move todos os comentários
+ * do incidente juntos).
+ */
+@Service
+@Transactional(readOnly = true)
+public class CommentQueryService {
+    
+    // Maior página servida pelo cursor
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    private final CommentRepository commentRepository;
+    private final IncidentArchiveRepository archiveRepository;
+    
+    public CommentQueryService(CommentRepository commentRepository, IncidentArchiveRepository archiveRepository) {
+        this.commentRepository = commentRepository;
+        this.archiveRepository = archiveRepository;
+    }
+    
+    /**
+     * Lista completa; o ResponseCache limita pelo tamanho em bytes, então threads longas
+     * pesam o que ocupam
+     */
+    public List<Comment> findByIncident(UUID incidentId) {
+        List<Comment> comments = commentRepository.findByIncidentIdOrderByDataCriacaoDesc(incidentId);
+        return comments.isEmpty() ? archiveRepository.findComments(incidentId) : comments;
+    }
+    
+    /**
+     * Até limit comentários anteriores à posição (KeysetCursor.decode(null) para a primeira página)
+     */
+    public List<Comment> findBefore(UUID incidentId, KeysetCursor position, int limit) {
+        List<Comment> comments = commentRepository.findKeyset(incidentId, position.getData(), position.getId(), Limit.of(limit));
+        return comments.isEmpty()
+                ? archiveRepository.findCommentsBefore(incidentId, position.getData(), position.getId(), limit)
+                : comments;
+    }
+    
+    /**
+     * ETag atual da lista (quantidade e criação mais recente), sem carregar os comentários.
+     * Comentários não são editados, então inclusões e exclusões sempre alteram o valor.
+     */
+    public String currentETag(UUID incidentId) {
+        CommentRepository.CommentsVersion version = commentRepository.findVersionByIncidentId(incidentId);
+        if (version.getTotal() == 0) {
+            version = archiveRepository.findCommentsVersion(incidentId);
+        }
+        return ETags.comments(incidentId, version.getTotal(), version.getUltimaCriacao());
+    }
+}
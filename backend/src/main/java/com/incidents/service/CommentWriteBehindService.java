@@ -0,0 +1,201 @@
+package com.incidents.service;
+
+import com.incidents.event.CommentChangedEvent;
+import com.incidents.model.Comment;
+import com.incidents.repository.BulkInsertRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Gravação de comentários em lotes (write-behind, opcional). As requisições enfileiram o
+ * comentário numa fila limitada e aguardam a confirmação; uma única thread grava a fila em
+ * lotes JDBC quando atinge {@code batch-size} itens ou quando {@code flush-interval} expira,
+ * uma transação por lote. Fila cheia é sinalizada ao chamador (backpressure). Se o lote
+ * falha, cada comentário é regravado sozinho, para que só o problemático receba o erro.
+ */
+@Service
+public class CommentWriteBehindService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteBehindService.class);
+    
+    private final BulkInsertRepository bulkInsertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration ackTimeout;
+    private final BlockingQueue<PendingComment> queue;
+    
+    private volatile boolean running;
+    private Thread flusher;
+    
+    public CommentWriteBehindService(
+            BulkInsertRepository bulkInsertRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${incidents.comments.write-behind.enabled:false}") boolean enabled,
+            @Value("${incidents.comments.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${incidents.comments.write-behind.batch-size:200}") int batchSize,
+            @Value("${incidents.comments.write-behind.flush-interval:50ms}") Duration flushInterval,
+            @Value("${incidents.comments.write-behind.ack-timeout:10s}") Duration ackTimeout
+    ) {
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.ackTimeout = ackTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "comment-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    /**
+     * Para de aceitar comentários e grava o que ainda está na fila
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join();
+        
+        List<PendingComment> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public Duration getAckTimeout() {
+        return ackTimeout;
+    }
+    
+    public int getQueueSize() {
+        return queue.size();
+    }
+    
+    /**
+     * Enfileira o comentário (com ID já atribuído). Vazio quando a fila está cheia; o futuro
+     * é concluído após o commit do lote, ou com EntityNotFoundException se o incidente não existe.
+     */
+    public Optional<CompletableFuture<Comment>> submit(Comment comment) {
+        PendingComment pending = new PendingComment(comment);
+        if (!running || !queue.offer(pending)) {
+            return Optional.empty();
+        }
+        return Optional.of(pending.ack);
+    }
+    
+    private void run() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Encerramento: grava o lote parcial; o restante da fila é gravado em stop()
+                flush(batch);
+                return;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+    
+    private void flush(List<PendingComment> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<PendingComment> missing = new ArrayList<>();
+        List<PendingComment> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                missing.clear();
+                Set<UUID> existing = bulkInsertRepository.findExistingIncidentIds(
+                        batch.stream().map(pending -> pending.comment.getIncidentId()).collect(Collectors.toSet()));
+                
+                List<PendingComment> valid = new ArrayList<>(batch.size());
+                for (PendingComment pending : batch) {
+                    (existing.contains(pending.comment.getIncidentId()) ? valid : missing).add(pending);
+                }
+                bulkInsertRepository.insertComments(valid.stream().map(pending -> pending.comment).collect(Collectors.toList()));
+                return valid;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).ack.completeExceptionally(e);
+                return;
+            }
+            log.warn("Lote de {} comentários falhou ({}); gravando um a um", batch.size(), e.getMessage());
+            batch.forEach(pending -> flush(List.of(pending)));
+            return;
+        }
+        
+        missing.forEach(pending -> pending.ack.completeExceptionally(
+                new EntityNotFoundException("Incidente " + pending.comment.getIncidentId() + " não encontrado")));
+        for (PendingComment pending : inserted) {
+            eventPublisher.publishEvent(CommentChangedEvent.created(pending.comment));
+            pending.ack.complete(pending.comment);
+        }
+    }
+    
+    private static final class PendingComment {
+        
+        private final Comment comment;
+        private final CompletableFuture<Comment> ack = new CompletableFuture<>();
+        
+        private PendingComment(Comment comment) {
+            this.comment = comment;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.incidents.service;
+
+import com.incidents.event.IncidentChangedEvent;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.repository.IncidentArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Arquivamento periódico (opcional) de incidentes RESOLVIDA/CANCELADA sem alteração há
+ * mais de {@code min-age}: são movidos, com comentários e tags, para as tabelas de arquivo
+ * particionadas por ano, mantendo pequenas as tabelas ativas, seus índices e o vacuum.
+ * Cada bloco de {@code chunk-size} incidentes roda em transação própria e curta; linhas
+ * bloqueadas por outras escritas ficam para a próxima execução. Os incidentes arquivados
+ * saem das listagens, mas continuam legíveis (somente leitura) por id e nos comentários e
+ * contados em /stats; caches, gerações das listagens e assinantes SSE são atualizados.
+ */
+@Service
+@ConditionalOnProperty(name = "incidents.archive.enabled", havingValue = "true")
+public class IncidentArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(IncidentArchiveService.class);
+    
+    private final IncidentArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration lockTimeout;
+    
+    public IncidentArchiveService(
+            IncidentArchiveRepository archiveRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${incidents.archive.min-age:90d}") Duration minAge,
+            @Value("${incidents.archive.chunk-size:500}") int chunkSize,
+            @Value("${incidents.archive.chunk-pause:200ms}") Duration chunkPause,
+            @Value("${incidents.archive.lock-timeout:2s}") Duration lockTimeout
+    ) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.lockTimeout = lockTimeout;
+    }
+    
+    @Scheduled(fixedDelayString = "${incidents.archive.interval:3600000}",
+            initialDelayString = "${incidents.archive.initial-delay:60000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        long total = 0;
+        try {
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                if (moved == null || moved < 0) {
+                    log.debug("Arquivamento em andamento em outra instância");
+                    break;
+                }
+                total += moved;
+                if (moved < chunkSize) {
+                    break;
+                }
+                // Folga para o autovacuum, as réplicas e as transações da aplicação
+                Thread.sleep(chunkPause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Inclui lock_timeout; os blocos já confirmados permanecem arquivados
+            log.warn("Arquivamento interrompido após {} incidentes: {}", total, e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            log.info("{} incidentes encerrados antes de {} movidos para o arquivo", total, cutoff);
+        }
+    }
+    
+    /**
+     * Move um bloco na transação atual. -1 quando outra instância detém o lock do arquivamento.
+     */
+    private int archiveChunk(LocalDateTime cutoff) {
+        if (!archiveRepository.tryLock()) {
+            return -1;
+        }
+        archiveRepository.setLockTimeout(lockTimeout);
+        List<UUID> ids = archiveRepository.lockClosedBefore(cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        List<Object[]> removed = archiveRepository.moveToArchive(ids);
+        // Publicados dentro da transação: os listeners rodam após o commit
+        for (Object[] row : removed) {
+            eventPublisher.publishEvent(IncidentChangedEvent.archived((UUID) row[0],
+                    (Status) row[1], (Prioridade) row[2]));
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,152 @@
+package com.incidents.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.incidents.dto.IncidentFilter;
+import com.incidents.model.Incident;
+import com.incidents.repository.IncidentRepository;
+import com.incidents.repository.IncidentSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exportação completa de incidentes em NDJSON ou CSV com memória constante: as linhas
+ * vêm de um cursor no servidor e são escritas em blocos, com o contexto de persistência
+ * limpo após cada bloco
+ */
+@Service
+public class IncidentExportService {
+    
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+    
+    // Mesmo tamanho do @BatchSize de Incident.tags
+    private static final int BLOCK_SIZE = 100;
+    
+    private static final String CSV_HEADER = "id,titulo,descricao,prioridade,status,responsavelEmail,tags,dataAbertura,dataAtualizacao";
+    
+    private final IncidentRepository incidentRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public IncidentExportService(
+            IncidentRepository incidentRepository,
+            ObjectMapper objectMapper,
+            @Value("${incidents.export.fetch-size:500}") int fetchSize
+    ) {
+        this.incidentRepository = incidentRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+    
+    @Transactional(readOnly = true)
+    public void export(IncidentFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Incident> incidents = incidentRepository.streamAll(IncidentSpecifications.fromFilter(filter), fetchSize)) {
+            if (format == Format.CSV) {
+                writeCsv(incidents.iterator(), writer);
+            } else {
+                writeNdjson(incidents.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+    
+    private void writeNdjson(Iterator<Incident> incidents, Writer writer) throws IOException {
+        // Cada registro termina em '\n', escrito pelo próprio gerador; exportação vazia não
+        // escreve nada. Sem flush por registro nem fechar o writer de saída: o container
+        // encerra a resposta
+        ObjectWriter recordWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            forEachBlock(incidents, block -> {
+                for (Incident incident : block) {
+                    recordWriter.writeValue(generator, incident);
+                    generator.writeRaw('\n');
+                }
+            });
+        }
+    }
+    
+    private void writeCsv(Iterator<Incident> incidents, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        forEachBlock(incidents, block -> {
+            for (Incident incident : block) {
+                writer.write(incident.getId().toString());
+                writer.write(',');
+                writer.write(csv(incident.getTitulo()));
+                writer.write(',');
+                writer.write(csv(incident.getDescricao()));
+                writer.write(',');
+                writer.write(incident.getPrioridade().name());
+                writer.write(',');
+                writer.write(incident.getStatus().name());
+                writer.write(',');
+                writer.write(csv(incident.getResponsavelEmail()));
+                writer.write(',');
+                writer.write(csv(String.join(";", incident.getTags())));
+                writer.write(',');
+                writer.write(incident.getDataAbertura().toString());
+                writer.write(',');
+                writer.write(incident.getDataAtualizacao().toString());
+                writer.write('\n');
+            }
+        });
+    }
+    
+    /**
+     * Agrupa as linhas do cursor em blocos: as tags do bloco são carregadas em uma única
+     * consulta (@BatchSize) e as entidades são desanexadas depois de escritas
+     */
+    private void forEachBlock(Iterator<Incident> incidents, BlockWriter blockWriter) throws IOException {
+        List<Incident> block = new ArrayList<>(BLOCK_SIZE);
+        while (incidents.hasNext()) {
+            block.add(incidents.next());
+            if (block.size() == BLOCK_SIZE || !incidents.hasNext()) {
+                block.forEach(incident -> Hibernate.initialize(incident.getTags()));
+                blockWriter.write(block);
+                block.clear();
+                entityManager.clear();
+            }
+        }
+    }
+    
+    // Campo CSV (RFC 4180): entre aspas quando contém separador, aspas ou quebra de linha
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    
+    private interface BlockWriter {
+        void write(List<Incident> block) throws IOException;
+    }
+}
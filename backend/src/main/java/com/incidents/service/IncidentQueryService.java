@@ -0,0 +1,173 @@
+package com.incidents.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.incidents.dto.CountMode;
+import com.incidents.dto.CursorPage;
+import com.incidents.dto.IncidentFields;
+import com.incidents.dto.IncidentFilter;
+import com.incidents.model.Incident;
+import com.incidents.repository.IncidentArchiveRepository;
+import com.incidents.repository.IncidentRepository;
+import com.incidents.repository.IncidentSpecifications;
+import com.incidents.util.ETags;
+import com.incidents.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Consultas de listagem de incidentes: filtros combinados em uma única instrução,
+ * com contagem exata, estimada ou sem contagem. Leituras por id recorrem ao arquivo
+ * quando o incidente não está nas tabelas ativas; as listagens cobrem apenas os ativos.
+ */
+@Service
+@Transactional(readOnly = true)
+public class IncidentQueryService {
+    
+    private final IncidentRepository incidentRepository;
+    private final IncidentArchiveRepository archiveRepository;
+    private final CacheManager cacheManager;
+    
+    // Totais por combinação de filtros para o modo APPROX
+    private final Cache<String, Long> approximateCounts;
+    
+    public IncidentQueryService(
+            IncidentRepository incidentRepository,
+            IncidentArchiveRepository archiveRepository,
+            CacheManager cacheManager,
+            @Value("${incidents.query.approximate-count-ttl:5m}") Duration approximateCountTtl
+    ) {
+        this.incidentRepository = incidentRepository;
+        this.archiveRepository = archiveRepository;
+        this.cacheManager = cacheManager;
+        this.approximateCounts = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(approximateCountTtl)
+                .build();
+    }
+    
+    /**
+     * Listagem com apenas os campos pedidos, lidos direto no SELECT (sem entidades
+     * nem persistence context). Sem cache aqui: a resposta serializada fica no ResponseCache.
+     */
+    public Slice<Map<String, Object>> list(IncidentFilter filter, IncidentFields fields, Pageable pageable, CountMode countMode) {
+        Specification<Incident> spec = IncidentSpecifications.fromFilter(filter);
+        Slice<Map<String, Object>> slice = incidentRepository.findSlice(spec, pageable, fields);
+        
+        switch (countMode) {
+            case NONE:
+                return slice;
+            case APPROX:
+                return new PageImpl<>(slice.getContent(), pageable, approximateTotal(filter, spec));
+            default:
+                // COUNT(*) dispensado quando a página já revela o total (primeira página incompleta ou última)
+                return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> incidentRepository.count(spec));
+        }
+    }
+    
+    public CursorPage<Map<String, Object>> listByCursor(IncidentFilter filter, IncidentFields fields, KeysetCursor position, int size) {
+        Specification<Incident> spec = IncidentSpecifications.fromFilter(filter)
+                .and(IncidentSpecifications.before(position));
+        List<Map<String, Object>> rows = incidentRepository.findKeyset(spec, size + 1, fields);
+        CursorPage<Map<String, Object>> page = CursorPage.fromLookahead(rows, size,
+                row -> new KeysetCursor((LocalDateTime) row.get("dataAbertura"), (UUID) row.get("id")));
+        // dataAbertura é lida sempre para montar o cursor, mas só é devolvida se pedida
+        if (!fields.includes("dataAbertura")) {
+            page.getContent().forEach(row -> row.remove("dataAbertura"));
+        }
+        return page;
+    }
+    
+    // Arquivados são imutáveis: podem ficar no incidentById como os ativos
+    @Cacheable(value = "incidentById", key = "#id")
+    public Optional<Incident> findById(UUID id) {
+        return incidentRepository.findWithTagsById(id).or(() -> archiveRepository.findIncident(id));
+    }
+    
+    /**
+     * Vários incidentes por ID, na ordem pedida e sem os inexistentes. Os acertos saem do
+     * incidentById numa única leitura em lote; as faltas são carregadas numa só consulta
+     * (tags pelo entity graph), mais uma no arquivo para as que restarem, e gravadas no
+     * cache de uma vez, inclusive os IDs ausentes, como em findById.
+     */
+    public List<Incident> findAllById(Collection<UUID> ids) {
+        LinkedHashSet<UUID> requested = new LinkedHashSet<>(ids);
+        Cache<Object, Object> cache = cacheManager.getCache("incidentById") instanceof CaffeineCache caffeineCache
+                ? caffeineCache.getNativeCache()
+                : null;
+        
+        Map<Object, Object> found = new HashMap<>();
+        if (cache != null) {
+            found.putAll(cache.getAllPresent(requested));
+        }
+        List<UUID> missing = requested.stream().filter(id -> !found.containsKey(id)).toList();
+        
+        if (!missing.isEmpty()) {
+            Map<Object, Object> loaded = new HashMap<>();
+            for (Incident incident : incidentRepository.findWithTagsByIdIn(missing)) {
+                loaded.put(incident.getId(), incident);
+            }
+            List<UUID> notActive = missing.stream().filter(id -> !loaded.containsKey(id)).toList();
+            if (!notActive.isEmpty()) {
+                for (Incident incident : archiveRepository.findIncidents(notActive)) {
+                    loaded.put(incident.getId(), incident);
+                }
+            }
+            missing.forEach(id -> loaded.putIfAbsent(id, NullValue.INSTANCE));
+            if (cache != null) {
+                cache.putAll(loaded);
+            }
+            found.putAll(loaded);
+        }
+        
+        List<Incident> incidents = new ArrayList<>(requested.size());
+        for (UUID id : requested) {
+            if (found.get(id) instanceof Incident incident) {
+                incidents.add(incident);
+            }
+        }
+        return incidents;
+    }
+    
+    // Consulta apenas dataAtualizacao, para requisições condicionais
+    public Optional<String> currentETag(UUID id) {
+        return incidentRepository.findDataAtualizacaoById(id)
+                .or(() -> archiveRepository.findDataAtualizacao(id))
+                .map(dataAtualizacao -> ETags.incident(id, dataAtualizacao));
+    }
+    
+    /**
+     * Sem filtros usa a estimativa do planner (pg_class.reltuples); com filtros,
+     * a contagem exata fica em cache pelo TTL configurado
+     */
+    private long approximateTotal(IncidentFilter filter, Specification<Incident> spec) {
+        if (filter.isEmpty()) {
+            long estimate = incidentRepository.estimateTotal();
+            if (estimate > 0) {
+                return estimate;
+            }
+        }
+        return approximateCounts.get(filter.cacheKey(), key -> incidentRepository.count(spec));
+    }
+}
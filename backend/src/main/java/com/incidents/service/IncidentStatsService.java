@@ -0,0 +1,198 @@
+package com.incidents.service;
+
+import com.incidents.event.BatchImportedEvent;
+import com.incidents.event.IncidentChangedEvent;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.repository.IncidentRepository;
+import com.incidents.util.ETags;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores de incidentes por status e prioridade mantidos em memória.
+ * As escritas aplicam deltas; a reconciliação periódica substitui os valores
+ * pelo resultado de um único GROUP BY no primário, somado aos deltas aplicados enquanto
+ * a consulta rodava (que ela pode não ter visto). A primeira contagem é feita na
+ * inicialização, antes de qualquer leitura das estatísticas.
+ */
+@Service
+public class IncidentStatsService {
+    
+    private static final Status[] STATUSES = Status.values();
+    private static final Prioridade[] PRIORIDADES = Prioridade.values();
+    
+    private static final Logger log = LoggerFactory.getLogger(IncidentStatsService.class);
+    
+    private final IncidentRepository incidentRepository;
+    private final TransactionTemplate primaryTransaction;
+    
+    // Matriz status x prioridade; protegida pelo monitor desta instância
+    private final long[][] counts = new long[STATUSES.length][PRIORIDADES.length];
+    // Deltas aplicados durante a consulta da reconciliação em curso (nulo fora dela);
+    // protegido pelo mesmo monitor
+    private long[][] pendingDeltas;
+    // Uma reconciliação por vez (agendada, pós-reconexão do relay); também protege consecutiveFailures
+    private final Object reconcileLock = new Object();
+    private int consecutiveFailures;
+    
+    // Resposta pronta de /stats/incidents, recriada a cada alteração
+    private volatile Map<String, Object> snapshot = Collections.emptyMap();
+    private volatile long version;
+    
+    // Distingue contadores de execuções diferentes no ETag
+    private final long epoch = System.currentTimeMillis();
+    
+    public IncidentStatsService(IncidentRepository incidentRepository, PlatformTransactionManager transactionManager) {
+        this.incidentRepository = incidentRepository;
+        // Transação de escrita: o roteamento mantém a contagem no primário, nunca numa réplica atrasada
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Contagem inicial; uma falha aqui impede a aplicação de subir em vez de servir zeros
+     */
+    @PostConstruct
+    void loadInitialCounts() {
+        reconcileOnce();
+    }
+    
+    public Map<String, Object> getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * ETag dos contadores atuais. Deve ser lido antes de getSnapshot(): a versão só
+     * avança depois que o novo snapshot é publicado, então o corpo nunca é mais antigo que o ETag.
+     */
+    public String currentETag() {
+        return ETags.stats(epoch, version);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIncidentChanged(IncidentChangedEvent event) {
+        apply(counts, event);
+        if (pendingDeltas != null) {
+            apply(pendingDeltas, event);
+        }
+        publish();
+    }
+    
+    // Um único snapshot publicado por bloco importado
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBatchImported(BatchImportedEvent event) {
+        if (event.getIncidents().isEmpty()) {
+            return;
+        }
+        for (IncidentChangedEvent incident : event.getIncidents()) {
+            apply(counts, incident);
+            if (pendingDeltas != null) {
+                apply(pendingDeltas, incident);
+            }
+        }
+        publish();
+    }
+    
+    @Scheduled(fixedDelayString = "${incidents.stats.reconcile-interval:300000}",
+            initialDelayString = "${incidents.stats.reconcile-interval:300000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            try {
+                reconcileOnce();
+                consecutiveFailures = 0;
+            } catch (RuntimeException e) {
+                // Os deltas continuam sendo aplicados; a próxima execução tenta de novo
+                log.warn("Falha ao reconciliar os contadores de incidentes ({} seguidas): {}", ++consecutiveFailures, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Deltas de transações confirmadas logo antes da consulta, mas entregues depois de
+     * iniciada a janela (em especial os remotos), podem ser contados duas vezes; a próxima
+     * reconciliação corrige. Nenhum delta posterior à consulta é perdido.
+     */
+    private void reconcileOnce() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                pendingDeltas = new long[STATUSES.length][PRIORIDADES.length];
+            }
+            long[][] fresh;
+            try {
+                // Consulta fora do monitor para não bloquear as escritas
+                fresh = countOnPrimary();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingDeltas = null;
+                }
+                throw e;
+            }
+            
+            synchronized (this) {
+                for (int s = 0; s < STATUSES.length; s++) {
+                    for (int p = 0; p < PRIORIDADES.length; p++) {
+                        counts[s][p] = fresh[s][p] + pendingDeltas[s][p];
+                    }
+                }
+                pendingDeltas = null;
+                publish();
+            }
+        }
+    }
+    
+    private static void apply(long[][] cells, IncidentChangedEvent event) {
+        if (event.getPreviousStatus() != null && event.getPreviousPrioridade() != null) {
+            cells[event.getPreviousStatus().ordinal()][event.getPreviousPrioridade().ordinal()]--;
+        }
+        if (event.getStatus() != null && event.getPrioridade() != null) {
+            cells[event.getStatus().ordinal()][event.getPrioridade().ordinal()]++;
+        }
+    }
+    
+    private long[][] countOnPrimary() {
+        List<Object[]> rows = primaryTransaction.execute(status -> incidentRepository.countGroupedByStatusAndPrioridade());
+        long[][] fresh = new long[STATUSES.length][PRIORIDADES.length];
+        for (Object[] row : rows) {
+            fresh[Status.valueOf(row[0].toString()).ordinal()][Prioridade.valueOf(row[1].toString()).ordinal()] = ((Number) row[2]).longValue();
+        }
+        return fresh;
+    }
+    
+    private void publish() {
+        long total = 0;
+        Map<String, Long> porStatus = new LinkedHashMap<>();
+        Map<String, Long> porPrioridade = new LinkedHashMap<>();
+        for (Prioridade prioridade : PRIORIDADES) {
+            porPrioridade.put(prioridade.name(), 0L);
+        }
+        
+        for (Status status : STATUSES) {
+            long statusTotal = 0;
+            for (Prioridade prioridade : PRIORIDADES) {
+                long count = counts[status.ordinal()][prioridade.ordinal()];
+                statusTotal += count;
+                porPrioridade.merge(prioridade.name(), count, Long::sum);
+            }
+            porStatus.put(status.name(), statusTotal);
+            total += statusTotal;
+        }
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total", total);
+        stats.put("porStatus", Collections.unmodifiableMap(porStatus));
+        stats.put("porPrioridade", Collections.unmodifiableMap(porPrioridade));
+        snapshot = Collections.unmodifiableMap(stats);
+        version++;
+    }
+}
@@ -0,0 +1,106 @@
+package com.incidents.stream;
+
+import com.incidents.event.BatchImportedEvent;
+import com.incidents.event.CommentChangedEvent;
+import com.incidents.event.IncidentChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribui as alterações confirmadas de incidentes e comentários aos assinantes SSE.
+ * A publicação apenas enfileira no buffer de cada assinante; o envio roda em threads
+ * virtuais, uma tarefa ativa por assinante.
+ */
+@Component
+public class IncidentEventBroadcaster {
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    
+    public IncidentEventBroadcaster(
+            @Value("${incidents.stream.buffer-size:256}") int bufferSize,
+            @Value("${incidents.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${incidents.stream.timeout:30m}") Duration timeout
+    ) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+    }
+    
+    /**
+     * Novo assinante; vazio quando o limite de assinantes foi atingido
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return Optional.of(emitter);
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        broadcast(StreamEvent.of(sequence.incrementAndGet(), event));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        broadcast(StreamEvent.of(sequence.incrementAndGet(), event));
+    }
+    
+    // Assinantes continuam recebendo um evento por item importado
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatchImported(BatchImportedEvent event) {
+        event.getIncidents().forEach(this::onIncidentChanged);
+        event.getComments().forEach(this::onCommentChanged);
+    }
+    
+    // Mantém proxies e balanceadores com a conexão aberta e detecta clientes desconectados
+    @Scheduled(fixedDelayString = "${incidents.stream.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.requestHeartbeat()) {
+                senders.execute(subscriber::drain);
+            }
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+    
+    private void broadcast(StreamEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(event)) {
+                senders.execute(subscriber::drain);
+            }
+        }
+    }
+}
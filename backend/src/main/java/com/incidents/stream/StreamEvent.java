@@ -0,0 +1,89 @@
+package com.incidents.stream;
+
+import com.incidents.event.CommentChangedEvent;
+import com.incidents.event.IncidentChangedEvent;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+
+import java.util.UUID;
+
+/**
+ * Notificação enviada aos assinantes de /incidents/stream. Carrega apenas identificadores
+ * e estado resumido; o cliente busca o recurso quando precisar do conteúdo.
+ */
+public class StreamEvent {
+    
+    private final long sequence;
+    private final String type;
+    private final UUID incidentId;
+    private final UUID commentId;
+    private final Status previousStatus;
+    private final Status status;
+    private final Prioridade prioridade;
+    
+    private StreamEvent(long sequence, String type, UUID incidentId, UUID commentId,
+                        Status previousStatus, Status status, Prioridade prioridade) {
+        this.sequence = sequence;
+        this.type = type;
+        this.incidentId = incidentId;
+        this.commentId = commentId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.prioridade = prioridade;
+    }
+    
+    public static StreamEvent of(long sequence, IncidentChangedEvent event) {
+        String type;
+        if (event.isCreated()) {
+            type = "incident.created";
+        } else if (event.isDeleted()) {
+            type = "incident.deleted";
+        } else if (event.getStatus() != event.getPreviousStatus()) {
+            type = "incident.status";
+        } else {
+            type = "incident.updated";
+        }
+        return new StreamEvent(sequence, type, event.getIncidentId(), null,
+                event.getPreviousStatus(), event.getStatus(), event.getPrioridade());
+    }
+    
+    public static StreamEvent of(long sequence, CommentChangedEvent event) {
+        return new StreamEvent(sequence, event.isDeleted() ? "comment.deleted" : "comment.created",
+                event.getIncidentId(), event.getCommentId(), null, null, null);
+    }
+    
+    /**
+     * Eventos pendentes com a mesma chave são substituídos pelo mais recente
+     */
+    String coalesceKey() {
+        return (type.startsWith("comment.") ? "c:" : "i:") + incidentId;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public UUID getIncidentId() {
+        return incidentId;
+    }
+    
+    public UUID getCommentId() {
+        return commentId;
+    }
+    
+    public Status getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Prioridade getPrioridade() {
+        return prioridade;
+    }
+}
@@ -0,0 +1,117 @@
+package com.incidents.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Assinante do stream com buffer próprio e limitado. Eventos pendentes do mesmo recurso
+ * são coalescidos (fica o mais recente); se ainda assim o buffer exceder a capacidade,
+ * os mais antigos são descartados e o cliente recebe "resync" para recarregar tudo.
+ * Apenas uma tarefa de envio por assinante fica ativa, então um cliente lento atrasa
+ * somente a si mesmo.
+ */
+final class Subscriber {
+    
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final LinkedHashMap<String, StreamEvent> pending = new LinkedHashMap<>();
+    private boolean overflowed;
+    private boolean heartbeatDue;
+    private boolean draining;
+    private boolean closed;
+    
+    Subscriber(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Enfileira o evento; retorna true quando o chamador deve agendar drain()
+     */
+    synchronized boolean offer(StreamEvent event) {
+        if (closed) {
+            return false;
+        }
+        String key = event.coalesceKey();
+        pending.remove(key);
+        pending.put(key, event);
+        if (pending.size() > capacity) {
+            Iterator<StreamEvent> eldest = pending.values().iterator();
+            eldest.next();
+            eldest.remove();
+            overflowed = true;
+        }
+        return startDrain();
+    }
+    
+    synchronized boolean requestHeartbeat() {
+        if (closed) {
+            return false;
+        }
+        heartbeatDue = true;
+        return startDrain();
+    }
+    
+    /**
+     * Envia os eventos pendentes até esvaziar o buffer; a escrita ocorre fora do monitor
+     */
+    void drain() {
+        while (true) {
+            List<StreamEvent> batch;
+            boolean resync;
+            boolean heartbeat;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !overflowed && !heartbeatDue)) {
+                    draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                heartbeat = heartbeatDue;
+                overflowed = false;
+                heartbeatDue = false;
+            }
+            
+            try {
+                if (resync) {
+                    emitter.send(SseEmitter.event().name("resync").data("{}"));
+                }
+                for (StreamEvent event : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.getSequence()))
+                            .name(event.getType())
+                            .data(event));
+                }
+                if (heartbeat) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Conexão encerrada pelo cliente
+                close();
+                return;
+            }
+        }
+    }
+    
+    void close() {
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+        }
+        emitter.complete();
+    }
+    
+    private boolean startDrain() {
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.incidents.util;
+
+import com.incidents.model.Comment;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ETags fortes derivados da versão de cada recurso, calculáveis sem carregar a entidade
+ */
+public final class ETags {
+    
+    private ETags() {
+    }
+    
+    public static String incident(UUID id, LocalDateTime dataAtualizacao) {
+        return quote("i-" + id + "-" + timestamp(dataAtualizacao));
+    }
+    
+    public static String comments(UUID incidentId, long total, LocalDateTime ultimaCriacao) {
+        return quote("c-" + incidentId + "-" + total + "-" + (ultimaCriacao == null ? "0" : timestamp(ultimaCriacao)));
+    }
+    
+    // Lista ordenada por data de criação decrescente, como retornada pelo repositório
+    public static String comments(UUID incidentId, List<Comment> comments) {
+        return comments(incidentId, comments.size(), comments.isEmpty() ? null : comments.get(0).getDataCriacao());
+    }
+    
+    public static String stats(long epoch, long version) {
+        return quote("s-" + epoch + "-" + version);
+    }
+    
+    private static String timestamp(LocalDateTime value) {
+        // Precisão de microssegundos, a mesma do TIMESTAMP do Postgres
+        return value.toEpochSecond(ZoneOffset.UTC) + "." + value.getNano() / 1000;
+    }
+    
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -46,4 +46,18 @@ public class IncidentUtils {
         }
         return termo.trim().toLowerCase();
     }
+    
+    /**
+     * Padrão LIKE para busca parcial, com curingas do termo escapados
+     */
+    public static String buildLikePattern(String termo) {
+        if (termo == null) {
+            return null;
+        }
+        String escaped = termo
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 }
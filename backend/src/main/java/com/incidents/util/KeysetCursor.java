@@ -0,0 +1,63 @@
+package com.incidents.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição de paginação por cursor (keyset): par (data, id) do último item retornado.
+ * Serializado como token opaco em Base64 URL-safe.
+ */
+public final class KeysetCursor {
+    
+    // Posição anterior a qualquer registro (primeira página em ordem decrescente)
+    private static final KeysetCursor START = new KeysetCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            new UUID(-1L, -1L)
+    );
+    
+    private final LocalDateTime data;
+    private final UUID id;
+    
+    public KeysetCursor(LocalDateTime data, UUID id) {
+        this.data = data;
+        this.id = id;
+    }
+    
+    /**
+     * Decodifica o cursor recebido do cliente; vazio ou nulo indica a primeira página
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+    
+    public String encode() {
+        String raw = data + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getData() {
+        return data;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,11 @@
+-- Índices para paginação por cursor (keyset) ordenada por data_abertura DESC, id DESC,
+-- um para cada combinação de filtros de status/prioridade
+CREATE INDEX idx_incident_abertura_id ON incident(data_abertura DESC, id DESC);
+CREATE INDEX idx_incident_status_abertura_id ON incident(status, data_abertura DESC, id DESC);
+CREATE INDEX idx_incident_prioridade_abertura_id ON incident(prioridade, data_abertura DESC, id DESC);
+CREATE INDEX idx_incident_status_prioridade_abertura_id ON incident(status, prioridade, data_abertura DESC, id DESC);
+
+-- Cobertos pelos índices compostos acima (mesmo prefixo)
+DROP INDEX IF EXISTS idx_incident_data_abertura;
+DROP INDEX IF EXISTS idx_incident_status;
+DROP INDEX IF EXISTS idx_incident_prioridade;
@@ -0,0 +1,25 @@
+-- Busca textual indexada (substitui LOWER(...) LIKE '%termo%', que exigia leitura sequencial)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Vetor de busca em português; título com peso maior que a descrição.
+-- Funções SQL IMMUTABLE são expandidas pelo planner, permitindo o uso do índice de expressão abaixo.
+CREATE OR REPLACE FUNCTION incident_search_vector(titulo TEXT, descricao TEXT) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A')
+        || setweight(to_tsvector('portuguese', coalesce(descricao, '')), 'B')
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+-- Correspondência do termo (sintaxe de busca web: "frase", -exclusão, OR)
+CREATE OR REPLACE FUNCTION incident_search_matches(titulo TEXT, descricao TEXT, termo TEXT) RETURNS boolean AS $$
+    SELECT incident_search_vector(titulo, descricao) @@ websearch_to_tsquery('portuguese', termo)
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+-- Relevância: ranking textual somado à similaridade de trigramas do título
+CREATE OR REPLACE FUNCTION incident_search_rank(titulo TEXT, descricao TEXT, termo TEXT) RETURNS real AS $$
+    SELECT ts_rank(incident_search_vector(titulo, descricao), websearch_to_tsquery('portuguese', termo))
+        + similarity(lower(titulo), termo)
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+CREATE INDEX idx_incident_search ON incident USING GIN (incident_search_vector(titulo, descricao));
+
+-- Trigramas para correspondência parcial no título (prefixos, palavras incompletas)
+CREATE INDEX idx_incident_titulo_trgm ON incident USING GIN (lower(titulo) gin_trgm_ops);
@@ -0,0 +1,2 @@
+-- Filtro por responsável nas consultas dinâmicas, na mesma ordem da paginação por cursor
+CREATE INDEX idx_incident_responsavel_abertura_id ON incident(responsavel_email, data_abertura DESC, id DESC);
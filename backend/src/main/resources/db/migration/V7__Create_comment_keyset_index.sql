@@ -0,0 +1,6 @@
+-- Índice para paginação por cursor dos comentários de um incidente,
+-- ordenados por data_criacao DESC, id DESC
+CREATE INDEX idx_comment_incident_criacao_id ON comment(incident_id, data_criacao DESC, id DESC);
+
+-- Coberto pelo índice composto acima (mesmo prefixo)
+DROP INDEX IF EXISTS idx_comment_incident_id;
@@ -0,0 +1,53 @@
+-- Arquivo frio de incidentes encerrados (RESOLVIDA/CANCELADA), particionado por ano de
+-- data_abertura. Comentários e tags acompanham o incidente e usam a mesma chave, então
+-- uma partição anual inteira pode ser desanexada ou removida de uma vez.
+-- A chave de partição precisa fazer parte das chaves primárias.
+CREATE TABLE incident_archive (
+    id UUID NOT NULL,
+    titulo VARCHAR(120) NOT NULL,
+    descricao TEXT,
+    prioridade VARCHAR(10) NOT NULL,
+    status VARCHAR(15) NOT NULL,
+    responsavel_email VARCHAR(255) NOT NULL,
+    data_abertura TIMESTAMP NOT NULL,
+    data_atualizacao TIMESTAMP NOT NULL,
+    data_arquivamento TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, data_abertura)
+) PARTITION BY RANGE (data_abertura);
+
+CREATE TABLE comment_archive (
+    id UUID NOT NULL,
+    incident_id UUID NOT NULL,
+    incident_data_abertura TIMESTAMP NOT NULL,
+    autor VARCHAR(120) NOT NULL,
+    mensagem TEXT NOT NULL,
+    data_criacao TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, incident_data_abertura)
+) PARTITION BY RANGE (incident_data_abertura);
+
+CREATE TABLE incident_tags_archive (
+    incident_id UUID NOT NULL,
+    incident_data_abertura TIMESTAMP NOT NULL,
+    tag VARCHAR(100) NOT NULL,
+    PRIMARY KEY (incident_id, tag, incident_data_abertura)
+) PARTITION BY RANGE (incident_data_abertura);
+
+CREATE INDEX idx_comment_archive_incident_id ON comment_archive(incident_id);
+
+-- Partições anuais criadas sob demanda pelo job de arquivamento, antes de mover cada bloco
+CREATE OR REPLACE FUNCTION incident_archive_create_partitions(ano INTEGER) RETURNS void AS $$
+DECLARE
+    inicio TIMESTAMP := make_timestamp(ano, 1, 1, 0, 0, 0);
+    fim TIMESTAMP := make_timestamp(ano + 1, 1, 1, 0, 0, 0);
+    tabela TEXT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['incident_archive', 'comment_archive', 'incident_tags_archive'] LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                tabela || '_' || ano, tabela, inicio, fim);
+    END LOOP;
+END
+$$ LANGUAGE plpgsql;
+
+-- Seleção dos candidatos ao arquivamento sem percorrer os incidentes ativos
+CREATE INDEX idx_incident_encerrado_atualizacao ON incident(data_atualizacao)
+    WHERE status IN ('RESOLVIDA', 'CANCELADA');
@@ -0,0 +1,123 @@
+package com.incidents.service;
+
+import com.incidents.dto.CountMode;
+import com.incidents.dto.IncidentFields;
+import com.incidents.dto.IncidentFilter;
+import com.incidents.model.Incident;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.repository.IncidentRepository;
+import com.incidents.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Número de instruções SQL por página das listagens de incidentes, independente do tamanho
+ * da página: as tags de todas as linhas vêm de uma única consulta com IN. Usa o Postgres
+ * configurado no application.yml; os dados criados são desfeitos ao fim de cada teste.
+ */
+@SpringBootTest(properties = "incidents.cluster.notify.enabled=false")
+@Transactional
+class IncidentQueryServiceStatementCountTest {
+    
+    private static final String RESPONSAVEL = "statement-count@incidents.test";
+    private static final int INCIDENTS = 250;
+    
+    @Autowired
+    private IncidentQueryService incidentQueryService;
+    
+    @Autowired
+    private IncidentRepository incidentRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private Statistics statistics;
+    private IncidentFilter filter;
+    
+    @BeforeEach
+    void createIncidents() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Incident> incidents = new ArrayList<>(INCIDENTS);
+        for (int i = 0; i < INCIDENTS; i++) {
+            Incident incident = new Incident();
+            incident.setTitulo("Contagem de instruções " + i);
+            incident.setPrioridade(Prioridade.MEDIA);
+            incident.setStatus(Status.ABERTA);
+            incident.setResponsavelEmail(RESPONSAVEL);
+            incident.setTags(new ArrayList<>(List.of("database", "tag-" + (i % 7))));
+            incident.setDataAbertura(now.minusMinutes(i));
+            incident.setDataAtualizacao(now.minusMinutes(i));
+            incidents.add(incident);
+        }
+        incidentRepository.saveAll(incidents);
+        entityManager.flush();
+        entityManager.clear();
+        
+        filter = new IncidentFilter(null, null, null, null, RESPONSAVEL);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+    
+    @Test
+    void pageWithoutCountUsesSameStatementsForAnySize() {
+        IntConsumer page = size -> incidentQueryService.list(
+                filter, IncidentFields.LIST_DEFAULT, PageRequest.of(0, size, Sort.by("dataAbertura")), CountMode.NONE);
+        
+        // Linhas (com uma a mais para hasNext) e tags
+        assertThat(statements(page, 10)).isEqualTo(2);
+        assertThat(statements(page, 100)).isEqualTo(2);
+    }
+    
+    @Test
+    void pageWithExactCountUsesSameStatementsForAnySize() {
+        IntConsumer page = size -> incidentQueryService.list(
+                filter, IncidentFields.LIST_DEFAULT, PageRequest.of(1, size, Sort.by("dataAbertura")), CountMode.EXACT);
+        
+        // Linhas, tags e COUNT(*)
+        assertThat(statements(page, 10)).isEqualTo(3);
+        assertThat(statements(page, 100)).isEqualTo(3);
+    }
+    
+    @Test
+    void cursorPageUsesSameStatementsForAnySize() {
+        IntConsumer page = size -> incidentQueryService.listByCursor(
+                filter, IncidentFields.LIST_DEFAULT, KeysetCursor.decode(""), size);
+        
+        assertThat(statements(page, 10)).isEqualTo(2);
+        assertThat(statements(page, 100)).isEqualTo(2);
+    }
+    
+    @Test
+    void pageContainsTagsOfEveryRow() {
+        List<Map<String, Object>> rows = incidentQueryService.list(
+                filter, IncidentFields.LIST_DEFAULT, PageRequest.of(0, 100), CountMode.NONE).getContent();
+        
+        assertThat(rows).hasSize(100);
+        assertThat(rows).allSatisfy(row -> assertThat((List<?>) row.get("tags")).hasSize(2));
+    }
+    
+    private long statements(IntConsumer page, int size) {
+        entityManager.clear();
+        statistics.clear();
+        page.accept(size);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,90 @@
+package com.incidents.service;
+
+import com.incidents.event.IncidentChangedEvent;
+import com.incidents.model.enums.Prioridade;
+import com.incidents.model.enums.Status;
+import com.incidents.repository.IncidentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reconciliação dos contadores com deltas aplicados durante a consulta
+ */
+class IncidentStatsServiceTest {
+    
+    private IncidentRepository incidentRepository;
+    private IncidentStatsService statsService;
+    
+    @BeforeEach
+    void createService() {
+        incidentRepository = mock(IncidentRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(incidentRepository.countGroupedByStatusAndPrioridade()).thenReturn(rows(10, 4));
+        
+        statsService = new IncidentStatsService(incidentRepository, transactionManager);
+        statsService.loadInitialCounts();
+    }
+    
+    @Test
+    void initialLoadIsServedBeforeAnyDelta() {
+        assertThat(statsService.getSnapshot().get("total")).isEqualTo(14L);
+    }
+    
+    @Test
+    void deltasAppliedDuringQueryAreKept() {
+        // Dois criados e um resolvido enquanto a consulta roda, depois do snapshot que ela leu
+        when(incidentRepository.countGroupedByStatusAndPrioridade()).thenAnswer(invocation -> {
+            statsService.onIncidentChanged(created());
+            statsService.onIncidentChanged(created());
+            statsService.onIncidentChanged(resolved());
+            return rows(11, 4);
+        });
+        
+        statsService.reconcile();
+        
+        assertThat(porStatus().get("ABERTA")).isEqualTo(12L);
+        assertThat(porStatus().get("RESOLVIDA")).isEqualTo(5L);
+        assertThat(statsService.getSnapshot().get("total")).isEqualTo(17L);
+    }
+    
+    @Test
+    void failedReconcileKeepsApplyingDeltas() {
+        when(incidentRepository.countGroupedByStatusAndPrioridade()).thenThrow(new IllegalStateException("banco indisponível"));
+        
+        statsService.reconcile();
+        statsService.onIncidentChanged(created());
+        
+        assertThat(porStatus().get("ABERTA")).isEqualTo(11L);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> porStatus() {
+        return (Map<String, Long>) statsService.getSnapshot().get("porStatus");
+    }
+    
+    private static List<Object[]> rows(long abertas, long resolvidas) {
+        return List.of(
+                new Object[]{"ABERTA", "MEDIA", abertas},
+                new Object[]{"RESOLVIDA", "MEDIA", resolvidas});
+    }
+    
+    private static IncidentChangedEvent created() {
+        return new IncidentChangedEvent(UUID.randomUUID(), null, null, Status.ABERTA, Prioridade.MEDIA);
+    }
+    
+    private static IncidentChangedEvent resolved() {
+        return new IncidentChangedEvent(UUID.randomUUID(), Status.ABERTA, Prioridade.MEDIA, Status.RESOLVIDA, Prioridade.MEDIA);
+    }
+}
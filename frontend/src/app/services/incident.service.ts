@@ -4,6 +4,9 @@ import { ApiService } from './api.service';
 import { Incident, IncidentRequest } from '../models/incident.model';
 import { Page } from '../models/page.model';
 
+// Campos usados pela listagem; sem 'fields' a API omite a descrição, exibida como resumo
+const LIST_FIELDS = 'titulo,descricao,prioridade,status,responsavelEmail,tags,dataAbertura';
+
 @Injectable({
   providedIn: 'root'
 })
@@ -11,7 +14,7 @@ export class IncidentService {
   constructor(private apiService: ApiService) {}
 
   getIncidents(params?: any): Observable<Page<Incident>> {
-    return this.apiService.get<Page<Incident>>('/incidents', params);
+    return this.apiService.get<Page<Incident>>('/incidents', { fields: LIST_FIELDS, ...params });
   }
 
   getIncident(id: string): Observable<Incident> {